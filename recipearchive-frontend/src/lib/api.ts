@@ -1,4 +1,4 @@
-import type { User, Recipe, LoginResponse } from './types';// API client with JWT token handling
+import type { User, Recipe, RecipeSummary, LoginResponse, CursorPage } from './types';// API client with JWT token handling
 const API_BASE_URL = typeof window !== 'undefined' && window.location.hostname !== 'localhost' ? 'http://localhost:8080' : '';// Use relative paths in development, absolute URL in production
 export interface ApiResponse<T> {
 	data?: T;
@@ -87,14 +87,36 @@ export class ApiClient {
 	async deleteUser(id: number): Promise<void> {
 		return this.request('DELETE', `/users/${id}`);
 	}
-	async getAllRecipes(): Promise<Recipe[]> {// Recipe endpoints
-		return this.request('GET', '/recipes', undefined, false);
+	async getAllRecipes(cursor?: string | null, size?: number): Promise<CursorPage<Recipe>> {// Recipe endpoints
+		return this.request('GET', `/recipes${this.pageQuery(cursor, size)}`, undefined, false);
+	}
+	async getRecipeSummaries(cursor?: string | null, size?: number): Promise<CursorPage<RecipeSummary>> {
+		return this.request('GET', `/recipes${this.pageQuery(cursor, size, 'summary')}`, undefined, false);
+	}
+	async searchRecipes(query: string, cursor?: string | null, size?: number): Promise<CursorPage<Recipe>> {
+		const page = this.pageQuery(cursor, size);
+		const q = `q=${encodeURIComponent(query)}`;
+		return this.request('GET', `/recipes/search${page ? `${page}&${q}` : `?${q}`}`, undefined, false);
 	}
 	async getRecipeById(id: number): Promise<Recipe> {
 		return this.request('GET', `/recipes/${id}`, undefined, false);
 	}
-	async getUserRecipes(userId: number): Promise<Recipe[]> {
-		return this.request('GET', `/recipes/user/${userId}`, undefined, false);
+	async getUserRecipes(userId: number, cursor?: string | null, size?: number): Promise<CursorPage<Recipe>> {
+		return this.request('GET', `/recipes/user/${userId}${this.pageQuery(cursor, size)}`, undefined, false);
+	}
+	private pageQuery(cursor?: string | null, size?: number, fields?: 'summary' | 'full'): string {
+		const params = new URLSearchParams();
+		if (fields) {
+			params.set('fields', fields);
+		}
+		if (cursor) {
+			params.set('cursor', cursor);
+		}
+		if (size) {
+			params.set('size', String(size));
+		}
+		const query = params.toString();
+		return query ? `?${query}` : '';
 	}
 	async createRecipe(recipeData: {
 		title: string;
@@ -1,6 +1,6 @@
 import { writable } from 'svelte/store';
-import type { User, AuthState, Recipe, RecipeState } from './types';
-export type { User, AuthState, Recipe, RecipeState };
+import type { User, AuthState, Recipe, RecipeSummary, RecipeState } from './types';
+export type { User, AuthState, Recipe, RecipeSummary, RecipeState };
 const initialAuthState: AuthState = {isAuthenticated: false, user: null, token: null, loading: false, error: null};
 function createAuthStore() {
 	const { subscribe, set, update } = writable<AuthState>(initialAuthState);
@@ -34,9 +34,12 @@ function createRecipeStore() {
 	const { subscribe, set, update } = writable<RecipeState>(initialRecipeState);
 	return {
 		subscribe,
-		setRecipes: (recipes: Recipe[]) => {
+		setRecipes: (recipes: RecipeSummary[]) => {
 			update((state) => ({ ...state, recipes }));
 		},
+		appendRecipes: (recipes: RecipeSummary[]) => {
+			update((state) => ({ ...state, recipes: [...state.recipes, ...recipes] }));
+		},
 		selectRecipe: (recipe: Recipe | null) => {
 			update((state) => ({ ...state, selectedRecipe: recipe }));
 		},
@@ -11,6 +11,8 @@ export interface User {
 export interface Recipe {
 	id: number;
 	userId: number;
+	username?: string;
+	displayName?: string;
 	title: string;
 	description: string;
 	ingredients: string;
@@ -22,6 +24,12 @@ export interface Recipe {
 	createdAt?: string;
 	updatedAt?: string;
 }
+export type RecipeSummary = Omit<Recipe, 'ingredients' | 'instructions'>;// List items requested with fields=summary
+export interface CursorPage<T> {
+	items: T[];
+	nextCursor: string | null;
+	hasMore: boolean;
+}
 export interface LoginResponse {
 	token: string;
 	username: string;
@@ -39,7 +47,7 @@ export interface AuthState {
 	error: string | null;
 }
 export interface RecipeState {
-	recipes: Recipe[];
+	recipes: RecipeSummary[];
 	selectedRecipe: Recipe | null;
 	loading: boolean;
 	error: string | null;
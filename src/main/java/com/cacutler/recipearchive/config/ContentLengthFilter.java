@@ -0,0 +1,37 @@
+package com.cacutler.recipearchive.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.IOException;
+
+// Message converters flush as they finish writing, which commits the response before its length is known, and
+// Tomcat compresses every response of unknown length. Buffering the recipe and user reads sets Content-Length
+// first, so server.compression.min-response-size actually skips small bodies. The export stream is left alone.
+@Component
+public class ContentLengthFilter extends OncePerRequestFilter {
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || path.startsWith("/recipes/export")
+                || !(path.startsWith("/recipes") || path.startsWith("/users"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        // JSON and CBOR share ETags, so shared caches must key on Accept as well
+        buffered.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            buffered.copyBodyToResponse();
+        }
+    }
+}
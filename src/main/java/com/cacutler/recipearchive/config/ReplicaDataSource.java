@@ -0,0 +1,100 @@
+package com.cacutler.recipearchive.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Read-only connections: from the replica while it is reachable and no further behind than maxLag, otherwise from
+// the primary. Lag is sampled on a schedule rather than per connection, so routing adds no round trip.
+public class ReplicaDataSource extends DelegatingDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+    // Zero once replay has caught up with everything received, so a quiet primary does not read as lag
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+    private final DataSource primary;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService healthCheck;
+    private volatile boolean reachable = true;
+    private volatile double lagSeconds;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary, Duration maxLag, Duration checkInterval) {
+        super(replica);
+        this.primary = primary;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-health").daemon().factory());
+        healthCheck.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (inUse()) {
+            try {
+                return super.getConnection();
+            } catch (SQLException e) {
+                unreachable(e);// Reads stay on the primary until the next health check reaches the replica
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (inUse()) {
+            try {
+                return super.getConnection(username, password);
+            } catch (SQLException e) {
+                unreachable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    public boolean inUse() {
+        return reachable && lagSeconds <= maxLagSeconds;
+    }
+
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+
+    void check() {
+        try (Connection connection = obtainTargetDataSource().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(LAG_QUERY)) {
+            result.next();
+            boolean wasInUse = inUse();
+            lagSeconds = result.getDouble(1);
+            reachable = true;
+            if (wasInUse && !inUse()) {
+                log.warn("Replica is {}s behind (max {}s), reading from the primary", lagSeconds, maxLagSeconds);
+            } else if (!wasInUse && inUse()) {
+                log.info("Replica caught up, routing read-only transactions to it again");
+            }
+        } catch (SQLException | RuntimeException e) {// Keeps the schedule alive
+            unreachable(e);
+        }
+    }
+
+    private void unreachable(Exception e) {
+        if (reachable) {
+            log.warn("Replica unreachable, reading from the primary: {}", e.getMessage());
+        }
+        reachable = false;
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+    }
+}
@@ -2,10 +2,13 @@ package com.cacutler.recipearchive.config;
 
 import com.cacutler.recipearchive.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -20,20 +23,34 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Value("${server.port:8080}")
+    private int serverPort;
+    @Value("${management.server.port:-1}") // Unset or negative: actuator shares the public port, if exposed at all
+    private int managementPort;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        // Prometheus scrapes are open only on a separate management port (0 picks a random one), which the public
+        // port does not route to; otherwise the endpoint needs a token like the rest
+        boolean separateManagementPort = managementPort == 0 || (managementPort > 0 && managementPort != serverPort);
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints - anyone can access
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/users").permitAll() // User registration
+                        .requestMatchers(HttpMethod.GET, "/recipes/export").authenticated() // Bulk archive dump
                         .requestMatchers(HttpMethod.GET, "/recipes/**").permitAll() // View recipes
                         .requestMatchers(HttpMethod.GET, "/users/**").permitAll() // View users
+                        .requestMatchers("/actuator/health").permitAll() // Platform health checks
+                        .requestMatchers("/actuator/prometheus").access(separateManagementPort
+                                ? (authentication, context) -> new AuthorizationDecision(true)
+                                : AuthenticatedAuthorizationManager.authenticated())
 
                         // Protected endpoints - require authentication
+                        .requestMatchers("/admin/**").hasRole("ADMIN") // Usernames listed in app.security.admins
                         .requestMatchers(HttpMethod.POST, "/recipes").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/recipes/import").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/recipes/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/recipes/**").authenticated()
                         .requestMatchers(HttpMethod.PATCH, "/users/**").authenticated()
@@ -49,8 +66,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);// The only encoder instance; PasswordHasher runs it off-thread
     }
 
     @Bean
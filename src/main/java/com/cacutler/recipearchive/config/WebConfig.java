@@ -0,0 +1,23 @@
+package com.cacutler.recipearchive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+// Clients sending Accept: application/cbor get CBOR instead of JSON; the DTOs and validation are shared.
+// CBOR drops quoting, escaping and decimal number text, and mobile clients decode it without a JSON parser.
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    @Bean
+    public CBORMapper cborMapper() {
+        return CBORMapper.builder().build();
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper()));
+    }
+}
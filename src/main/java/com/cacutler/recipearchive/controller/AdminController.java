@@ -0,0 +1,26 @@
+package com.cacutler.recipearchive.controller;
+
+import com.cacutler.recipearchive.dto.RecipeBatchDeleteDTO;
+import com.cacutler.recipearchive.dto.RecipeBatchDeleteResultDTO;
+import com.cacutler.recipearchive.service.RecipeService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Moderation endpoints; SecurityConfig restricts /admin/** to ROLE_ADMIN
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+    @Autowired
+    private RecipeService recipeService;
+
+    // POST rather than DELETE with a body, which proxies and clients are free to drop
+    @PostMapping("/recipes/batch-delete")
+    public ResponseEntity<RecipeBatchDeleteResultDTO> deleteRecipes(@Valid @RequestBody RecipeBatchDeleteDTO request) {
+        return ResponseEntity.ok(recipeService.deleteRecipes(request.getIds()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.cacutler.recipearchive.controller;
+
+import com.cacutler.recipearchive.exception.PreconditionFailedException;
+import com.cacutler.recipearchive.repository.CollectionVersionView;
+import com.cacutler.recipearchive.repository.RecipeKeyView;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Validators that change exactly when the underlying rows do: single items carry their version column, so an
+// If-Match can be checked inside the UPDATE itself; pages and collections are derived from updated_at
+final class ETags {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private ETags() {
+    }
+
+    static String of(String kind, Long id, Long version) {
+        return "\"" + kind + id + "-v" + version + "\"";
+    }
+
+    // Recipes show their author's name, so the author's updated_at is part of a recipe's tag as well
+    static String of(String kind, Long id, Long version, LocalDateTime authorUpdatedAt) {
+        return "\"" + kind + id + "-v" + version + "-a" + Long.toHexString(micros(authorUpdatedAt)) + "\"";
+    }
+
+    // The version an If-Match names for this item, or null for "*" (any current version). Weak tags are accepted:
+    // the version identifies the row whatever encoding the response carrying the tag was compressed with. An
+    // author part is not compared, since renaming the author does not conflict with editing the recipe.
+    static Long ifMatchVersion(String kind, Long id, String ifMatch) {
+        Matched matched = match(kind, id, ifMatch);
+        return matched == null ? null : matched.version();
+    }
+
+    // The tag answered after a conditional update to newVersion: the matched tag with its version advanced and
+    // any author part kept. Should the author have changed since, it names no current representation and the
+    // next conditional GET simply answers 200.
+    static String afterUpdate(String kind, Long id, Long newVersion, String ifMatch) {
+        Matched matched = match(kind, id, ifMatch);
+        return "\"" + kind + id + "-v" + newVersion + (matched == null ? "" : matched.rest()) + "\"";
+    }
+
+    private record Matched(long version, String rest) {
+    }
+
+    private static Matched match(String kind, Long id, String ifMatch) {
+        String prefix = kind + id + "-v";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"") && tag.startsWith(prefix, 1)) {
+                String suffix = tag.substring(prefix.length() + 1, tag.length() - 1);
+                int rest = suffix.indexOf('-');
+                try {
+                    return rest < 0 ? new Matched(Long.parseLong(suffix), "")
+                            : new Matched(Long.parseLong(suffix.substring(0, rest)), suffix.substring(rest));
+                } catch (NumberFormatException e) {
+                    // Not one of ours; keep looking
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version");
+    }
+
+    // FNV-1a over (id, updated_at, author's updated_at) of every row on the page, lookahead row included
+    static String ofRows(String kind, List<RecipeKeyView> rows) {
+        long hash = 0xcbf29ce484222325L;
+        for (RecipeKeyView row : rows) {
+            hash = mix(hash, row.getId());
+            hash = mix(hash, micros(row.getUpdatedAt()));
+            hash = mix(hash, micros(row.getAuthorUpdatedAt()));
+        }
+        return "\"" + kind + "p" + rows.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    static String ofCollection(String kind, CollectionVersionView version) {
+        return "\"" + kind + "c" + version.getCount() + "-" + Long.toHexString(micros(version.getLastUpdated()))
+                + "\"";
+    }
+
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static long lastModified(LocalDateTime updatedAt, LocalDateTime authorUpdatedAt) {
+        return authorUpdatedAt == null || (updatedAt != null && updatedAt.isAfter(authorUpdatedAt))
+                ? lastModified(updatedAt) : lastModified(authorUpdatedAt);
+    }
+
+    private static long micros(LocalDateTime value) {
+        return value == null ? 0 : ChronoUnit.MICROS.between(EPOCH, value);
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -1,35 +1,117 @@
 package com.cacutler.recipearchive.controller;
 
+import com.cacutler.recipearchive.dto.CursorPageDTO;
 import com.cacutler.recipearchive.dto.RecipeCreateDTO;
 import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.dto.RecipeImportResultDTO;
+import com.cacutler.recipearchive.dto.RecipeMatchDTO;
+import com.cacutler.recipearchive.dto.RecipeTrendingDTO;
 import com.cacutler.recipearchive.dto.RecipeUpdateDTO;
+import com.cacutler.recipearchive.exception.BadRequestException;
+import com.cacutler.recipearchive.repository.RecipeVersionView;
+import com.cacutler.recipearchive.service.RecipeImportService;
+import com.cacutler.recipearchive.service.RecipePageKeys;
 import com.cacutler.recipearchive.service.RecipeService;
+import com.cacutler.recipearchive.service.RecipeViewTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/recipes")
 public class RecipeController {
     @Autowired
     private RecipeService recipeService;
+    @Autowired
+    private RecipeImportService recipeImportService;
+    @Autowired
+    private RecipeViewTracker recipeViewTracker;
 
     @GetMapping
-    public ResponseEntity<List<RecipeDTO>> getAllRecipes() {
-        return ResponseEntity.ok(recipeService.getAllRecipes());
+    public ResponseEntity<CursorPageDTO<?>> getAllRecipes(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) List<String> excludeAllergens,
+            @RequestParam(defaultValue = "full") String fields, WebRequest webRequest) {
+        boolean summary = isSummary(fields);
+        RecipePageKeys keys = recipeService.getRecipeKeys(cursor, size, excludeAllergens);
+        if (webRequest.checkNotModified(ETags.ofRows(summary ? "rs" : "r", keys.getRows()))) {
+            return null;// 304 without loading or serializing any recipe body
+        }
+        return ResponseEntity.ok(summary ? recipeService.loadSummaryPage(keys) : recipeService.loadPage(keys));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<RecipeDTO>> searchRecipes(@RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) List<String> excludeAllergens) {
+        return ResponseEntity.ok(recipeService.searchRecipes(query, cursor, size, excludeAllergens));
+    }
+
+    @GetMapping("/match")
+    public ResponseEntity<List<RecipeMatchDTO>> getCookableRecipes(@RequestParam List<String> pantry,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(recipeService.getCookableRecipes(pantry, size));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<RecipeTrendingDTO>> getTrendingRecipes(@RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(recipeService.getTrendingRecipes(size));
+    }
+
+    @GetMapping("/export")
+    public void exportRecipes(@RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response) throws IOException {
+        String filename = userId == null ? "recipes.ndjson" : "recipes-user-" + userId + ".ndjson";
+        response.setContentType(gzip ? "application/gzip" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + filename + (gzip ? ".gz" : "") + "\"");
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        if (gzip) {
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        try (OutputStream body = out) {
+            recipeService.exportRecipes(userId, body);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RecipeDTO> getRecipeById(@PathVariable Long id) {
+    public ResponseEntity<RecipeDTO> getRecipeById(@PathVariable Long id, WebRequest webRequest) {
+        RecipeVersionView version = recipeService.getRecipeVersion(id);
+        recipeViewTracker.record(id);// In memory only; a revalidated (304) view counts too
+        if (webRequest.checkNotModified(ETags.of("r", id, version.getVersion(), version.getAuthorUpdatedAt()),
+                ETags.lastModified(version.getUpdatedAt(), version.getAuthorUpdatedAt()))) {
+            return null;
+        }
         return ResponseEntity.ok(recipeService.getRecipeById(id));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<RecipeDTO>> getRecipesByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(recipeService.getRecipesByUserId(userId));
+    public ResponseEntity<CursorPageDTO<?>> getRecipesByUser(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) List<String> excludeAllergens,
+            @RequestParam(defaultValue = "full") String fields, WebRequest webRequest) {
+        boolean summary = isSummary(fields);
+        RecipePageKeys keys = recipeService.getRecipeKeysByUserId(userId, cursor, size, excludeAllergens);
+        if (webRequest.checkNotModified(ETags.ofRows(summary ? "rs" : "r", keys.getRows()))) {
+            return null;
+        }
+        return ResponseEntity.ok(summary ? recipeService.loadSummaryPage(keys) : recipeService.loadPage(keys));
     }
 
     @PostMapping
@@ -38,16 +120,40 @@ public class RecipeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<RecipeImportResultDTO> importRecipes(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(recipeImportService.importRecipes(request.getInputStream()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRecipe(@PathVariable Long id) {
         recipeService.deleteRecipe(id);
         return ResponseEntity.noContent().build();
     }
 
+    // With If-Match the update is a single conditional UPDATE and the answer is 204 carrying the new ETag (412 when
+    // the version moved on); without it the recipe is loaded, changed and returned as before
     @PutMapping("/{id}")
     public ResponseEntity<RecipeDTO> updateRecipe(@PathVariable Long id,
-            @Valid @RequestBody RecipeUpdateDTO recipeUpdateDTO) {
+            @Valid @RequestBody RecipeUpdateDTO recipeUpdateDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Long version = recipeService.updateRecipeIfMatch(id, recipeUpdateDTO,
+                    ETags.ifMatchVersion("r", id, ifMatch));
+            return version == null ? ResponseEntity.noContent().build()
+                    : ResponseEntity.noContent().eTag(ETags.afterUpdate("r", id, version, ifMatch)).build();
+        }
         RecipeDTO updated = recipeService.updateRecipe(id, recipeUpdateDTO);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(ETags.of("r", id, updated.getVersion(), updated.getAuthorUpdatedAt()))
+                .body(updated);
+    }
+
+    // fields=summary drops ingredients and instructions from list items; fields=full (default) keeps RecipeDTO
+    private static boolean isSummary(String fields) {
+        return switch (fields.trim().toLowerCase(Locale.ROOT)) {
+            case "summary" -> true;
+            case "full" -> false;
+            default -> throw new BadRequestException("fields must be 'summary' or 'full'");
+        };
     }
-}
\ No newline at end of file
+}
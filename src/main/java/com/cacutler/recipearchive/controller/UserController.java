@@ -3,11 +3,14 @@ package com.cacutler.recipearchive.controller;
 import com.cacutler.recipearchive.dto.UserCreateDTO;
 import com.cacutler.recipearchive.dto.UserDTO;
 import com.cacutler.recipearchive.dto.UserUpdateDTO;
+import com.cacutler.recipearchive.repository.ItemVersionView;
 import com.cacutler.recipearchive.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -21,12 +24,20 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
+    public ResponseEntity<List<UserDTO>> getAllUsers(WebRequest webRequest) {
+        if (webRequest.checkNotModified(ETags.ofCollection("u", userService.getUsersVersion()))) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        ItemVersionView version = userService.getUserVersion(id);
+        if (webRequest.checkNotModified(ETags.of("u", id, version.getVersion()),
+                ETags.lastModified(version.getUpdatedAt()))) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
@@ -36,10 +47,17 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    // Conditional when If-Match is sent, exactly like PUT /recipes/{id}
     @PatchMapping("/{id}")
-    public ResponseEntity<UserDTO> patchUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO entity) {
+    public ResponseEntity<UserDTO> patchUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO entity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Long version = userService.updateUserIfMatch(id, entity, ETags.ifMatchVersion("u", id, ifMatch));
+            return version == null ? ResponseEntity.noContent().build()
+                    : ResponseEntity.noContent().eTag(ETags.of("u", id, version)).build();
+        }
         UserDTO updated = userService.updateUser(id, entity);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(ETags.of("u", id, updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,15 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;// Null when there are no more pages
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.cacutler.recipearchive.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeBatchDeleteDTO {
+    @NotEmpty(message = "At least one recipe id is required")
+    @Size(max = 1000, message = "At most 1000 recipes can be deleted per request")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,13 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeBatchDeleteResultDTO {
+    private int requested;// Distinct ids in the request
+    private int deleted;
+}
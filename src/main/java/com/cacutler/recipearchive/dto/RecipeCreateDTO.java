@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 @Data
 @NoArgsConstructor
@@ -14,6 +15,7 @@ public class RecipeCreateDTO {
     @NotNull(message = "User ID is required")
     private Long userId;
     @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must be at most 200 characters")
     private String title;
     private String description;
     @NotBlank(message = "Ingredients are required")
@@ -1,5 +1,6 @@
 package com.cacutler.recipearchive.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,7 +11,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class RecipeDTO {
     private Long id;
-    private Long userId;// May need to add a private string username attribute
+    private Long userId;
+    private String username;
+    private String displayName;// First and last name, or the username when neither is set
     private String title;
     private String description;
     private String ingredients;
@@ -21,4 +24,7 @@ public class RecipeDTO {
     private Integer servings;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;// Optimistic-lock version; also carried by the ETag
+    @JsonIgnore
+    private LocalDateTime authorUpdatedAt;// Only carried by the ETag, which changes when the author is renamed
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeImportErrorDTO {
+    private long index;// Zero-based position of the record in the uploaded stream
+    private String message;
+}
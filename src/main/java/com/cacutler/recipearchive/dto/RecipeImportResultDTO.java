@@ -0,0 +1,16 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeImportResultDTO {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RecipeImportErrorDTO> errors;// Capped; failed holds the full count
+}
@@ -0,0 +1,15 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeMatchDTO {
+    private RecipeDTO recipe;
+    private int matchedIngredients;
+    private int totalIngredients;
+    private double coverage;// Share of the recipe's ingredients found in the pantry, 0..1
+}
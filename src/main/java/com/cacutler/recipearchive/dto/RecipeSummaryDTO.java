@@ -0,0 +1,25 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// List-view shape of RecipeDTO, returned for fields=summary
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSummaryDTO {
+    private Long id;
+    private Long userId;
+    private String username;
+    private String displayName;
+    private String title;
+    private String description;
+    private String allergies;
+    private Integer prepTime;
+    private Integer cookingTime;
+    private Integer servings;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.cacutler.recipearchive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeTrendingDTO {
+    private RecipeSummaryDTO recipe;
+    private long views;// All-time detail views
+    private double score;// Views decayed to now, halving every app.views.half-life
+}
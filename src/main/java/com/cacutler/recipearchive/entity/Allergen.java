@@ -0,0 +1,43 @@
+package com.cacutler.recipearchive.entity;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Fixed allergen dictionary backing Recipe.allergenMask. Bit positions are persisted: append new values, never reorder.
+// Keyword patterns are mirrored in the V4 backfill migration.
+public enum Allergen {
+    MILK("milk|dairy|lactose|cheese|butter|cream|yogh?urt|whey|casein"),
+    EGG("eggs?"),
+    FISH("fish|salmon|tuna|cod|anchov(y|ies)"),
+    SHELLFISH("shellfish|shrimps?|prawns?|crabs?|lobsters?|crustaceans?|mollus(c|k)s?|clams?|mussels?|oysters?|scallops?"),
+    TREE_NUT("tree ?nuts?|nuts|almonds?|walnuts?|pecans?|cashews?|pistachios?|hazelnuts?|macadamias?"),
+    PEANUT("peanuts?"),
+    WHEAT("wheat|flour"),
+    SOY("soy|soya|soybeans?|tofu"),
+    SESAME("sesame|tahini"),
+    GLUTEN("gluten|barley|rye");
+
+    private final Pattern pattern;
+
+    Allergen(String keywords) {
+        this.pattern = Pattern.compile("\\b(" + keywords + ")\\b");
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long maskOf(String text) {
+        if (text == null || text.isBlank()) {
+            return 0L;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        long mask = 0L;
+        for (Allergen allergen : values()) {
+            if (allergen.pattern.matcher(normalized).find()) {
+                mask |= allergen.bit();
+            }
+        }
+        return mask;
+    }
+}
@@ -11,15 +11,21 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
 @Table(name = "recipes")
+@DynamicUpdate// UPDATE only the changed columns, so untouched TEXT values are not rewritten
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,11 +33,13 @@ import lombok.Setter;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Recipe {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_id_seq")
+    @SequenceGenerator(name = "recipes_id_seq", sequenceName = "recipes_id_seq", allocationSize = 50)// Must match the sequence increment
     @EqualsAndHashCode.Include
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)// Matches fk_recipe_user
     private User user;
     @Column(nullable = false)
     private String title;
@@ -43,16 +51,21 @@ public class Recipe {
     private String instructions;
     @Column(nullable = true, columnDefinition = "TEXT")
     private String allergies;
+    @Column(name = "allergen_mask", nullable = false)
+    private long allergenMask;// Allergen bits derived from allergies on every write
     @Column(nullable = true)
     private Integer prepTime;
     @Column(name = "cooking_time", nullable = true)
     private Integer cookingTime;
     @Column(nullable = true)
     private Integer servings;
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     @PrePersist
     protected void onCreate() {
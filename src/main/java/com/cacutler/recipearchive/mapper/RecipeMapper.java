@@ -0,0 +1,72 @@
+package com.cacutler.recipearchive.mapper;
+
+import com.cacutler.recipearchive.dto.RecipeCreateDTO;
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.dto.RecipeSummaryDTO;
+import com.cacutler.recipearchive.entity.Allergen;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.repository.RecipeSummaryView;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RecipeMapper {
+    // Callers must have fetched the author (see RecipeRepository.findAllWithUserByIdIn); the names are read from it
+    public RecipeDTO toDTO(Recipe recipe) {
+        User author = recipe.getUser();
+        return new RecipeDTO(
+                recipe.getId(),
+                author.getId(),
+                author.getUsername(),
+                displayName(author.getFirstName(), author.getLastName(), author.getUsername()),
+                recipe.getTitle(),
+                recipe.getDescription(),
+                recipe.getIngredients(),
+                recipe.getInstructions(),
+                recipe.getAllergies(),
+                recipe.getPrepTime(),
+                recipe.getCookingTime(),
+                recipe.getServings(),
+                recipe.getCreatedAt(),
+                recipe.getUpdatedAt(),
+                recipe.getVersion(),
+                author.getUpdatedAt());
+    }
+
+    public RecipeSummaryDTO toSummaryDTO(RecipeSummaryView recipe) {
+        return new RecipeSummaryDTO(
+                recipe.getId(),
+                recipe.getUserId(),
+                recipe.getUsername(),
+                displayName(recipe.getFirstName(), recipe.getLastName(), recipe.getUsername()),
+                recipe.getTitle(),
+                recipe.getDescription(),
+                recipe.getAllergies(),
+                recipe.getPrepTime(),
+                recipe.getCookingTime(),
+                recipe.getServings(),
+                recipe.getCreatedAt(),
+                recipe.getUpdatedAt());
+    }
+
+    static String displayName(String firstName, String lastName, String username) {
+        String name = ((firstName == null ? "" : firstName.trim()) + " "
+                + (lastName == null ? "" : lastName.trim())).trim();
+        return name.isEmpty() ? username : name;
+    }
+
+    public Recipe toEntity(RecipeCreateDTO dto, User user) {
+        Recipe recipe = new Recipe();
+        recipe.setUser(user);
+        recipe.setTitle(dto.getTitle());
+        recipe.setDescription(dto.getDescription());
+        recipe.setIngredients(dto.getIngredients());
+        recipe.setInstructions(dto.getInstructions());
+        recipe.setAllergies(dto.getAllergies());
+        recipe.setAllergenMask(Allergen.maskOf(dto.getAllergies()));
+        recipe.setPrepTime(dto.getPrepTime());
+        recipe.setCookingTime(dto.getCookingTime());
+        recipe.setServings(dto.getServings());
+        return recipe;
+    }
+}
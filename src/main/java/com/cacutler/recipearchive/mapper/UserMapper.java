@@ -0,0 +1,20 @@
+package com.cacutler.recipearchive.mapper;
+
+import com.cacutler.recipearchive.dto.UserDTO;
+import com.cacutler.recipearchive.entity.User;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+    public UserDTO toDTO(User user) {
+        return new UserDTO(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                user.getVersion());
+    }
+}
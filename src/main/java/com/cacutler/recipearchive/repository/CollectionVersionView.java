@@ -0,0 +1,10 @@
+package com.cacutler.recipearchive.repository;
+
+import java.time.LocalDateTime;
+
+// Row count plus newest update: changes on every insert, update and delete of the collection
+public interface CollectionVersionView {
+    Long getCount();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,6 @@
+package com.cacutler.recipearchive.repository;
+
+// A single row's optimistic-lock version next to its timestamp: the ETag and Last-Modified of one item
+public interface ItemVersionView extends VersionView {
+    Long getVersion();
+}
@@ -0,0 +1,7 @@
+package com.cacutler.recipearchive.repository;
+
+public interface RecipeIngredientsView {
+    Long getId();
+
+    String getIngredients();
+}
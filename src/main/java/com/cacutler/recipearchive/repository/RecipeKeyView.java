@@ -0,0 +1,10 @@
+package com.cacutler.recipearchive.repository;
+
+import java.time.LocalDateTime;
+
+// Keyset position plus version of a recipe; pages are located with these and hydrated by id afterwards
+public interface RecipeKeyView extends VersionView {
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getAuthorUpdatedAt();// The item shows the author's name, so a rename changes it too
+}
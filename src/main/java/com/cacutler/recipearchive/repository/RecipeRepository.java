@@ -1,7 +1,18 @@
 package com.cacutler.recipearchive.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.cacutler.recipearchive.entity.Recipe;
 
@@ -10,4 +21,88 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByUserId(Long userId);
 
     List<Recipe> findByUserUsername(String username);
-}
\ No newline at end of file
+
+    // Keyset pages: newest first, ties broken by id. Pageable only carries the limit (always page 0).
+    // These read only keys and versions so conditional GETs can be answered before any row body is loaded.
+    // The author's updated_at is a version too: list items show the author's name.
+    // excludedAllergens is an Allergen bitmask; pass 0 to disable the filter.
+    @Query("SELECT r.id AS id, r.createdAt AS createdAt, r.updatedAt AS updatedAt, u.updatedAt AS authorUpdatedAt "
+            + "FROM Recipe r JOIN r.user u "
+            + "WHERE bitand(r.allergenMask, :excludedAllergens) = 0 ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeKeyView> findFirstPage(@Param("excludedAllergens") long excludedAllergens, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.createdAt AS createdAt, r.updatedAt AS updatedAt, u.updatedAt AS authorUpdatedAt "
+            + "FROM Recipe r JOIN r.user u "
+            + "WHERE r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id) "
+            + "AND bitand(r.allergenMask, :excludedAllergens) = 0 ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeKeyView> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            @Param("excludedAllergens") long excludedAllergens, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.createdAt AS createdAt, r.updatedAt AS updatedAt, u.updatedAt AS authorUpdatedAt "
+            + "FROM Recipe r JOIN r.user u "
+            + "WHERE u.id = :userId AND bitand(r.allergenMask, :excludedAllergens) = 0 "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeKeyView> findFirstPageByUserId(@Param("userId") Long userId,
+            @Param("excludedAllergens") long excludedAllergens, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.createdAt AS createdAt, r.updatedAt AS updatedAt, u.updatedAt AS authorUpdatedAt "
+            + "FROM Recipe r JOIN r.user u "
+            + "WHERE u.id = :userId AND r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id) "
+            + "AND bitand(r.allergenMask, :excludedAllergens) = 0 ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeKeyView> findPageAfterByUserId(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            @Param("excludedAllergens") long excludedAllergens, Pageable pageable);
+
+    // Hydrates a keyset page for fields=summary without reading the large TEXT columns
+    @Query("SELECT r.id AS id, u.id AS userId, u.username AS username, u.firstName AS firstName, "
+            + "u.lastName AS lastName, r.title AS title, r.description AS description, r.allergies AS allergies, "
+            + "r.prepTime AS prepTime, r.cookingTime AS cookingTime, r.servings AS servings, "
+            + "r.createdAt AS createdAt, r.updatedAt AS updatedAt "
+            + "FROM Recipe r JOIN r.user u WHERE r.id IN :ids")
+    List<RecipeSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Full hydration fetches the author in the same statement, so mapping to RecipeDTO never hits a lazy proxy
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.user WHERE r.id IN :ids")
+    List<Recipe> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.user WHERE r.id = :id")
+    Optional<Recipe> findWithUserById(@Param("id") Long id);
+
+    @Query("SELECT r.id AS id, r.updatedAt AS updatedAt, r.version AS version, u.updatedAt AS authorUpdatedAt "
+            + "FROM Recipe r JOIN r.user u WHERE r.id = :id")
+    Optional<RecipeVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    // Single DELETE statements: nothing is loaded into the persistence context first
+    @Modifying
+    @Query("DELETE FROM Recipe r WHERE r.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Recipe r WHERE r.id IN :ids")
+    int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursors for the NDJSON export; callers must consume them inside a read-only transaction
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.user ORDER BY r.id")
+    Stream<Recipe> streamAll();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.user WHERE r.user.id = :userId ORDER BY r.id")
+    Stream<Recipe> streamByUserId(@Param("userId") Long userId);
+
+    // Reads only what the ingredient index needs, walking the primary key in batches
+    @Query("SELECT r.id AS id, r.ingredients AS ingredients FROM Recipe r WHERE r.id > :afterId ORDER BY r.id")
+    List<RecipeIngredientsView> findIngredientsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // search_vector is a generated column (see V3 migration) and is deliberately not mapped on the entity
+    @Query(value = "SELECT r.* FROM recipes r, websearch_to_tsquery('english', :query) q "
+            + "WHERE r.search_vector @@ q AND (r.allergen_mask & :excludedAllergens) = 0 "
+            + "ORDER BY ts_rank_cd(r.search_vector, q) DESC, r.id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Recipe> search(@Param("query") String query, @Param("excludedAllergens") long excludedAllergens,
+            @Param("limit") int limit, @Param("offset") int offset);
+}
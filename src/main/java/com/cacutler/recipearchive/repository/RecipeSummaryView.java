@@ -0,0 +1,32 @@
+package com.cacutler.recipearchive.repository;
+
+import java.time.LocalDateTime;
+
+// Card-sized slice of a recipe; leaves out the ingredients and instructions TEXT columns
+public interface RecipeSummaryView {
+    Long getId();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getAllergies();
+
+    Integer getPrepTime();
+
+    Integer getCookingTime();
+
+    Integer getServings();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,8 @@
+package com.cacutler.recipearchive.repository;
+
+import java.time.LocalDateTime;
+
+// A recipe's version plus its author's updated_at: the detail shows the author's name, so a rename changes it too
+public interface RecipeVersionView extends ItemVersionView {
+    LocalDateTime getAuthorUpdatedAt();
+}
@@ -1,8 +1,14 @@
 package com.cacutler.recipearchive.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.cacutler.recipearchive.entity.User;
 
 @Repository
@@ -10,4 +16,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.updatedAt AS updatedAt, u.version AS version FROM User u WHERE u.id = :id")
+    Optional<ItemVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT count(u) AS count, max(u.updatedAt) AS lastUpdated FROM User u")
+    CollectionVersionView findCollectionVersion();
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
+    // The user's recipes go with it through ON DELETE CASCADE on recipes.user_id
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
\ No newline at end of file
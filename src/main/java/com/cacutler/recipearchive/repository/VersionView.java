@@ -0,0 +1,10 @@
+package com.cacutler.recipearchive.repository;
+
+import java.time.LocalDateTime;
+
+// Just enough of a row to answer a conditional GET
+public interface VersionView {
+    Long getId();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -3,16 +3,22 @@ package com.cacutler.recipearchive.security;
 import com.cacutler.recipearchive.entity.User;
 import com.cacutler.recipearchive.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
         @Autowired
         private UserRepository userRepository;
+        @Value("${app.security.admins:}")
+        private Set<String> admins;
 
         @Override
         public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -20,13 +26,17 @@ public class CustomUserDetailsService implements UserDetailsService {
                                 .orElseThrow(() -> new UsernameNotFoundException(
                                                 "User not found with username: " + username));
                 return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(),
-                                new ArrayList<>());// You can add roles/authorities here if needed
+                                authorities(user.getUsername()));
         }
 
         public UserDetails loadUserById(Long id) {
                 User user = userRepository.findById(id)
                                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
                 return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(),
-                                new ArrayList<>());
+                                authorities(user.getUsername()));
+        }
+
+        private List<GrantedAuthority> authorities(String username) {
+                return admins.contains(username) ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN")) : List.of();
         }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.cacutler.recipearchive.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded, TTL-evicting cache of authenticated principals so bearer-token requests skip the users table lookup.
+// Entries carry no password hash; login always authenticates against the database.
+@Component
+public class PrincipalCache {
+    private final Cache<String, UserDetails> cache;
+    private final CustomUserDetailsService userDetailsService;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService, MeterRegistry meterRegistry,
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");// cache.gets{result=hit|miss}, cache.evictions
+    }
+
+    // Not cache.get(key, loader): the loader queries the database and must not run under Caffeine's bin lock,
+    // which would pin virtual threads. A load that overlaps an eviction is returned but not kept: it may have read
+    // the account before the delete or update committed, and caching it would keep a deleted account signed in.
+    public UserDetails get(String username) {
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = evictions.get();
+        UserDetails loaded = load(username);
+        cache.put(username, loaded);
+        // Re-checked after the put, so an eviction landing just before it is not undone. By identity: User equality
+        // is by username alone and would also drop a newer load.
+        if (evictions.get() != seen) {
+            cache.asMap().computeIfPresent(username, (key, current) -> current == loaded ? null : current);
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        evictions.incrementAndGet();// Before the invalidate, so a load putting after it removes its entry again
+        cache.invalidate(username);
+    }
+
+    private UserDetails load(String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return new User(userDetails.getUsername(), "", userDetails.isEnabled(), userDetails.isAccountNonExpired(),
+                userDetails.isCredentialsNonExpired(), userDetails.isAccountNonLocked(), userDetails.getAuthorities());
+    }
+}
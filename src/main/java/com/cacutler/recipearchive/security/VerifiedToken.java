@@ -0,0 +1,10 @@
+package com.cacutler.recipearchive.security;
+
+import java.time.Instant;
+
+// Claims of a token whose signature has already been checked; safe to reuse until expiresAt
+public record VerifiedToken(String username, Instant expiresAt) {
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
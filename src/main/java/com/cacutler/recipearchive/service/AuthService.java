@@ -0,0 +1,50 @@
+package com.cacutler.recipearchive.service;
+
+import com.cacutler.recipearchive.dto.AuthRequest;
+import com.cacutler.recipearchive.dto.AuthResponse;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.exception.ServiceBusyException;
+import com.cacutler.recipearchive.repository.UserRepository;
+import com.cacutler.recipearchive.security.JwtUtil;
+import com.cacutler.recipearchive.security.PasswordHasher;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Optional;
+
+// Not @Transactional: no connection is held while the password check waits on the BCrypt pool
+@Service
+@Timed("app.service")
+public class AuthService {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordHasher passwordHasher;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    public AuthResponse login(AuthRequest authRequest) {
+        Optional<User> found = userRepository.findByUsername(authRequest.getUsername());
+        if (found.isEmpty()) {
+            passwordHasher.matchDummy(authRequest.getPassword());
+            throw new BadCredentialsException("Invalid username or password");
+        }
+        User user = found.get();
+        if (!passwordHasher.matches(authRequest.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Invalid username or password");
+        }
+        if (passwordHasher.needsRehash(user.getPassword())) {// Configured BCrypt cost changed since this hash was made
+            try {
+                userRepository.updatePassword(user.getId(), passwordHasher.encode(authRequest.getPassword()));
+            } catch (ServiceBusyException e) {
+                // BCrypt pool saturated; the password already matched, so log in and rehash on a later login
+            }
+        }
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(user.getUsername(), "",
+                new ArrayList<>());
+        return new AuthResponse(jwtUtil.generateToken(userDetails), user.getUsername(), user.getId());
+    }
+}
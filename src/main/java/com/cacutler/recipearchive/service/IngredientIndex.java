@@ -0,0 +1,269 @@
+package com.cacutler.recipearchive.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index from ingredient id to dense document ordinals, stored as primitive int posting lists.
+// Recipe ids are mapped to reusable ordinals so scoring can run over flat int arrays.
+final class IngredientIndex {
+    record Match(long recipeId, int matched, int total) {
+    }
+
+    private static final int[] EMPTY = new int[0];
+    // Pooled rather than thread-local so scratch memory tracks concurrent queries, not thread count
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private int[][] postings = new int[256][];
+    private int[] postingSizes = new int[256];
+    private final Map<Long, Integer> docByRecipeId = new HashMap<>();
+    private long[] recipeIds = new long[1024];
+    private int[][] docIngredients = new int[1024][];
+    private int docCount;// High-water mark of allocated ordinals
+    private int[] freeDocs = new int[64];
+    private int freeCount;
+
+    void put(long recipeId, Collection<String> ingredientNames) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByRecipeId.get(recipeId);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unlink(doc);
+            } else {
+                doc = allocateDoc();
+                docByRecipeId.put(recipeId, doc);
+                recipeIds[doc] = recipeId;
+            }
+            int[] terms = new int[ingredientNames.size()];
+            int n = 0;
+            for (String name : ingredientNames) {
+                int term = termId(name);
+                terms[n++] = term;
+                append(term, doc);
+            }
+            docIngredients[doc] = terms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByRecipeId.remove(recipeId);
+            if (doc == null) {
+                return;
+            }
+            unlink(doc);
+            docIngredients[doc] = null;
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docByRecipeId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ranks recipes by the share of their ingredients found in the pantry, then by absolute matches
+    List<Match> match(Collection<String> pantry, int limit) {
+        Scratch pooled = scratchPool.poll();
+        Scratch scratch = pooled != null ? pooled : new Scratch();
+        lock.readLock().lock();
+        try {
+            int[] terms = resolve(pantry);
+            if (terms.length == 0 || limit <= 0) {
+                return List.of();
+            }
+            scratch.ensureCapacity(docCount);
+            int[] hits = scratch.hits;
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            for (int term : terms) {
+                int[] list = postings[term];
+                int size = postingSizes[term];
+                for (int i = 0; i < size; i++) {
+                    int doc = list[i];
+                    if (hits[doc]++ == 0) {
+                        touched[touchedCount++] = doc;
+                    }
+                }
+            }
+            int[] heap = new int[Math.min(limit, touchedCount)];
+            int heapSize = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = doc;
+                    siftUp(heap, heapSize - 1, hits);
+                } else if (heap.length > 0 && better(doc, heap[0], hits)) {
+                    heap[0] = doc;
+                    siftDown(heap, heapSize, hits);
+                }
+            }
+            List<Match> matches = new ArrayList<>(heapSize);
+            while (heapSize > 0) {
+                int doc = heap[0];
+                matches.add(new Match(recipeIds[doc], hits[doc], docIngredients[doc].length));
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, hits);
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                hits[touched[i]] = 0;
+            }
+            return matches.reversed();
+        } finally {
+            lock.readLock().unlock();
+            scratchPool.offer(scratch);
+        }
+    }
+
+    private int[] resolve(Collection<String> pantry) {
+        int[] terms = new int[pantry.size()];
+        int n = 0;
+        for (String name : pantry) {
+            Integer term = dictionary.get(name);
+            if (term != null && !contains(terms, n, term)) {
+                terms[n++] = term;
+            }
+        }
+        return Arrays.copyOf(terms, n);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean better(int a, int b, int[] hits) {
+        long coverageA = (long) hits[a] * docIngredients[b].length;
+        long coverageB = (long) hits[b] * docIngredients[a].length;
+        if (coverageA != coverageB) {
+            return coverageA > coverageB;
+        }
+        if (hits[a] != hits[b]) {
+            return hits[a] > hits[b];
+        }
+        return recipeIds[a] > recipeIds[b];
+    }
+
+    // Min-heap on rank: the root is the weakest of the current top results
+    private void siftUp(int[] heap, int i, int[] hits) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], hits)) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, int[] hits) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int weakest = left + 1 < size && better(heap[left], heap[left + 1], hits) ? left + 1 : left;
+            if (!better(heap[i], heap[weakest], hits)) {
+                return;
+            }
+            swap(heap, i, weakest);
+            i = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private int termId(String name) {
+        Integer term = dictionary.get(name);
+        if (term != null) {
+            return term;
+        }
+        int id = dictionary.size();
+        dictionary.put(name, id);
+        if (id == postings.length) {
+            postings = Arrays.copyOf(postings, id * 2);
+            postingSizes = Arrays.copyOf(postingSizes, id * 2);
+        }
+        postings[id] = EMPTY;
+        return id;
+    }
+
+    private void append(int term, int doc) {
+        int[] list = postings[term];
+        int size = postingSizes[term];
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size * 2));
+            postings[term] = list;
+        }
+        list[size] = doc;
+        postingSizes[term] = size + 1;
+    }
+
+    private void unlink(int doc) {
+        for (int term : docIngredients[doc]) {
+            int[] list = postings[term];
+            int size = postingSizes[term];
+            for (int i = 0; i < size; i++) {
+                if (list[i] == doc) {
+                    list[i] = list[size - 1];// Order within a posting list does not matter
+                    postingSizes[term] = size - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (docCount == recipeIds.length) {
+            recipeIds = Arrays.copyOf(recipeIds, docCount * 2);
+            docIngredients = Arrays.copyOf(docIngredients, docCount * 2);
+        }
+        return docCount++;
+    }
+
+    private static final class Scratch {
+        private int[] hits = EMPTY;
+        private int[] touched = EMPTY;
+
+        private void ensureCapacity(int docs) {
+            if (hits.length < docs) {
+                hits = new int[docs];
+                touched = new int[docs];
+            }
+        }
+    }
+}
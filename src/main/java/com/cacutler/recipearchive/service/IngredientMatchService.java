@@ -0,0 +1,101 @@
+package com.cacutler.recipearchive.service;
+
+import com.cacutler.recipearchive.exception.ServiceBusyException;
+import com.cacutler.recipearchive.repository.RecipeIngredientsView;
+import com.cacutler.recipearchive.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Rebuilds go into a fresh index that replaces the live one only when complete, so matches never see a partial
+// scan. Writes made during a rebuild go to the live index and are also recorded, then replayed onto the fresh one
+// before the swap. Until the first build is in, matches answer 503 rather than an empty or partial result.
+@Service
+public class IngredientMatchService {
+    private static final Logger log = LoggerFactory.getLogger(IngredientMatchService.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private volatile IngredientIndex index = new IngredientIndex();
+    private volatile boolean ready;
+    private final ReentrantLock writeLock = new ReentrantLock();// Orders writes against the replay and swap
+    private List<Consumer<IngredientIndex>> duringRebuild;// Non-null while a rebuild is scanning; guarded by writeLock
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        IngredientIndex fresh = new IngredientIndex();
+        writeLock.lock();
+        try {
+            duringRebuild = new ArrayList<>();// Before the scan, so a write it misses is recorded
+        } finally {
+            writeLock.unlock();
+        }
+        long afterId = 0;
+        List<RecipeIngredientsView> batch;
+        do {
+            batch = recipeRepository.findIngredientsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (RecipeIngredientsView recipe : batch) {
+                fresh.put(recipe.getId(), IngredientTokenizer.tokenize(recipe.getIngredients()));
+                afterId = recipe.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        writeLock.lock();
+        try {
+            duringRebuild.forEach(write -> write.accept(fresh));// Put and remove are idempotent, so overlap is fine
+            duringRebuild = null;
+            index = fresh;
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Ingredient index built for {} recipes", fresh.size());
+    }
+
+    // Applied once the caller's transaction commits: the rebuild scan can only see committed rows, and a rolled
+    // back write must not reach the index
+    public void index(Long recipeId, String ingredients) {
+        Set<String> names = IngredientTokenizer.tokenize(ingredients);
+        AfterCommit.run(() -> write(target -> target.put(recipeId, names)));
+    }
+
+    public void remove(Long recipeId) {
+        AfterCommit.run(() -> write(target -> target.remove(recipeId)));
+    }
+
+    List<IngredientIndex.Match> match(Collection<String> pantry, int limit) {
+        if (!ready) {
+            throw new ServiceBusyException("Ingredient index is still being built");
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String item : pantry) {
+            String name = IngredientTokenizer.normalize(item);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return index.match(names, limit);
+    }
+
+    private void write(Consumer<IngredientIndex> write) {
+        writeLock.lock();
+        try {
+            write.accept(index);
+            if (duringRebuild != null) {
+                duringRebuild.add(write);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cacutler.recipearchive.service;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Reduces free-text ingredient lines to head nouns, e.g. "2 cups all-purpose flour, sifted" -> "flour"
+final class IngredientTokenizer {
+    private static final Pattern SEPARATORS = Pattern.compile("[\\r\\n;,]+|\\band\\b|\\bor\\b|\\bplus\\b");
+    private static final Pattern PARENTHETICAL = Pattern.compile("\\([^)]*\\)");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]+");
+    private static final Set<String> IGNORED = Set.of(
+            // Units
+            "cup", "cups", "c", "tbsp", "tbs", "tablespoon", "tablespoons", "tsp", "teaspoon", "teaspoons", "oz",
+            "ounce", "ounces", "lb", "lbs", "pound", "pounds", "g", "gram", "grams", "kg", "ml", "l", "liter", "liters",
+            "pinch", "dash", "clove", "cloves", "can", "cans", "package", "packages", "pkg", "stick", "sticks",
+            "slice", "slices", "piece", "pieces", "bunch", "handful", "quart", "quarts", "pint", "pints", "jar",
+            // Descriptors
+            "large", "medium", "small", "fresh", "freshly", "dried", "chopped", "minced", "diced", "sliced",
+            "grated", "shredded", "melted", "softened", "beaten", "sifted", "peeled", "crushed", "ground", "whole",
+            "room", "temperature", "cold", "warm", "hot", "finely", "roughly", "thinly", "optional", "divided",
+            "packed", "heaping", "level", "about", "to", "taste", "for", "serving", "of", "the", "a", "an", "into",
+            "cut", "more", "needed", "as", "extra", "unsalted", "salted");
+
+    private IngredientTokenizer() {
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> names = new LinkedHashSet<>();
+        if (text == null) {
+            return names;
+        }
+        for (String part : SEPARATORS.split(PARENTHETICAL.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" "))) {
+            String name = headNoun(part);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    static String normalize(String ingredient) {
+        return ingredient == null ? null : headNoun(ingredient.toLowerCase(Locale.ROOT));
+    }
+
+    private static String headNoun(String phrase) {
+        String last = null;
+        for (String word : NON_LETTERS.split(phrase)) {
+            if (word.length() > 1 && !IGNORED.contains(word)) {
+                last = word;
+            }
+        }
+        return last == null ? null : singular(last);
+    }
+
+    private static String singular(String word) {
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") && word.length() > 4) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && word.length() > 3) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
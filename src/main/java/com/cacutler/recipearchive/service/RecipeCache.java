@@ -0,0 +1,61 @@
+package com.cacutler.recipearchive.service;
+
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Read-through cache of recipe detail responses. Writers evict after their transaction commits, so a reader
+// cannot cache the old row between the eviction and the commit. A load that overlaps any eviction is returned but
+// not kept, since it may have read the row before the evicting write committed.
+@Component
+public class RecipeCache {
+    private final Cache<Long, RecipeDTO> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RecipeCache(MeterRegistry meterRegistry,
+            @Value("${app.cache.recipes.max-size:10000}") long maxSize,
+            @Value("${app.cache.recipes.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recipes");
+    }
+
+    // Loads outside the cache: Caffeine's compute holds a map bin monitor, and a JDBC call under it
+    // would pin a virtual thread's carrier (JDK 21)
+    public RecipeDTO get(Long id, Function<Long, RecipeDTO> loader) {
+        RecipeDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = evictions.get();
+        RecipeDTO loaded = loader.apply(id);
+        cache.put(id, loaded);
+        // Re-checked after the put: an eviction landing between a check and the put would otherwise be undone
+        if (evictions.get() != seen) {
+            cache.asMap().remove(id, loaded);
+        }
+        return loaded;
+    }
+
+    public RecipeDTO peek(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void evict(Long id) {
+        evictions.incrementAndGet();// Before the invalidate, so a load putting after it removes its entry again
+        cache.invalidate(id);
+    }
+
+    // Details show the author's name. Scans the cache rather than querying the author's recipe ids: user updates
+    // are rare, and a recipe cached while the ids were read could not be missed this way.
+    public void evictByAuthor(Long userId) {
+        evictions.incrementAndGet();
+        cache.asMap().values().removeIf(recipe -> userId.equals(recipe.getUserId()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.cacutler.recipearchive.service;
+
+import com.cacutler.recipearchive.dto.RecipeCreateDTO;
+import com.cacutler.recipearchive.dto.RecipeImportErrorDTO;
+import com.cacutler.recipearchive.dto.RecipeImportResultDTO;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.mapper.RecipeMapper;
+import com.cacutler.recipearchive.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Not @Transactional as a whole: every batch commits on its own so one bad batch does not discard the rest
+@Service
+public class RecipeImportService {
+    private static final Logger log = LoggerFactory.getLogger(RecipeImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RecipeMapper recipeMapper;
+    @Autowired
+    private IngredientMatchService ingredientMatchService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+    private TransactionTemplate transactionTemplate;
+
+    private record PendingRecipe(long index, RecipeCreateDTO dto) {
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Accepts a JSON array or NDJSON; records are bound, validated and inserted one batch at a time
+    public RecipeImportResultDTO importRecipes(InputStream in) throws IOException {
+        RecipeImportResultDTO result = new RecipeImportResultDTO(0, 0, 0, new ArrayList<>());
+        List<PendingRecipe> batch = new ArrayList<>(batchSize);
+        MappingIterator<JsonNode> records = null;
+        try {
+            // Unwraps a root array, otherwise reads whitespace-separated values, which covers NDJSON
+            records = jsonMapper.readerFor(JsonNode.class).readValues(in);
+            while (records.hasNextValue()) {
+                JsonNode node = records.nextValue();
+                long index = result.getReceived();
+                result.setReceived(index + 1);
+                RecipeCreateDTO dto;
+                try {
+                    dto = jsonMapper.treeToValue(node, RecipeCreateDTO.class);
+                } catch (JacksonException e) {
+                    fail(result, index, e.getOriginalMessage());
+                    continue;
+                }
+                Set<ConstraintViolation<RecipeCreateDTO>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    fail(result, index, violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted().collect(Collectors.joining("; ")));
+                    continue;
+                }
+                batch.add(new PendingRecipe(index, dto));
+                if (batch.size() == batchSize) {
+                    insertBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (JacksonException e) {
+            // Syntax errors leave the parser with no reliable record boundary, so the rest of the stream is dropped
+            fail(result, result.getReceived(), "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        } finally {
+            if (records != null) {
+                records.close();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, result);
+        }
+        log.info("Recipe import finished: {} received, {} imported, {} failed", result.getReceived(),
+                result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void insertBatch(List<PendingRecipe> batch, RecipeImportResultDTO result) {
+        // One lookup per batch instead of one findById per record
+        Set<Long> owners = new HashSet<>(userRepository.findExistingIds(
+                batch.stream().map(pending -> pending.dto().getUserId()).distinct().toList()));
+        List<PendingRecipe> insertable = new ArrayList<>(batch.size());
+        for (PendingRecipe pending : batch) {
+            if (owners.contains(pending.dto().getUserId())) {
+                insertable.add(pending);
+            } else {
+                fail(result, pending.index(), "User not found with id: " + pending.dto().getUserId());
+            }
+        }
+        if (insertable.isEmpty()) {
+            return;
+        }
+        try {
+            indexImported(persist(insertable), result);
+        } catch (PersistenceException | DataAccessException e) {
+            // A constraint failure rolls back the whole batch; retry row by row to pin down the offending records
+            for (PendingRecipe pending : insertable) {
+                try {
+                    indexImported(persist(List.of(pending)), result);
+                } catch (PersistenceException | DataAccessException rowError) {
+                    fail(result, pending.index(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    // Sequence ids are assigned on persist, so the flush goes out as JDBC batches of hibernate.jdbc.batch_size
+    private List<Recipe> persist(List<PendingRecipe> pending) {
+        return transactionTemplate.execute(status -> {
+            List<Recipe> recipes = new ArrayList<>(pending.size());
+            for (PendingRecipe item : pending) {
+                User owner = entityManager.getReference(User.class, item.dto().getUserId());
+                Recipe recipe = recipeMapper.toEntity(item.dto(), owner);
+                entityManager.persist(recipe);
+                recipes.add(recipe);
+            }
+            entityManager.flush();
+            entityManager.clear();// Keeps the persistence context from growing across batches
+            return recipes;
+        });
+    }
+
+    private void indexImported(List<Recipe> recipes, RecipeImportResultDTO result) {
+        for (Recipe recipe : recipes) {
+            ingredientMatchService.index(recipe.getId(), recipe.getIngredients());
+        }
+        result.setImported(result.getImported() + recipes.size());
+    }
+
+    private void fail(RecipeImportResultDTO result, long index, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new RecipeImportErrorDTO(index, message));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.cacutler.recipearchive.service;
+
+import com.cacutler.recipearchive.repository.RecipeKeyView;
+import java.util.List;
+
+// Result of the light keyset query for one page: enough to build a validator, hydrated later by RecipeService.loadPage
+public final class RecipePageKeys {
+    private final List<RecipeKeyView> rows;// Includes the one-row lookahead
+    private final int limit;
+
+    RecipePageKeys(List<RecipeKeyView> rows, int limit) {
+        this.rows = rows;
+        this.limit = limit;
+    }
+
+    public List<RecipeKeyView> getRows() {
+        return rows;
+    }
+
+    boolean hasMore() {
+        return rows.size() > limit;
+    }
+
+    List<RecipeKeyView> page() {
+        return hasMore() ? rows.subList(0, limit) : rows;
+    }
+}
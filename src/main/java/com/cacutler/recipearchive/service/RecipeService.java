@@ -1,63 +1,268 @@
 package com.cacutler.recipearchive.service;
 
+import com.cacutler.recipearchive.dto.CursorPageDTO;
+import com.cacutler.recipearchive.dto.RecipeBatchDeleteResultDTO;
 import com.cacutler.recipearchive.dto.RecipeCreateDTO;
 import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.dto.RecipeMatchDTO;
+import com.cacutler.recipearchive.dto.RecipeSummaryDTO;
+import com.cacutler.recipearchive.dto.RecipeTrendingDTO;
 import com.cacutler.recipearchive.dto.RecipeUpdateDTO;
+import com.cacutler.recipearchive.entity.Allergen;
 import com.cacutler.recipearchive.entity.Recipe;
 import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.exception.BadRequestException;
+import com.cacutler.recipearchive.exception.PreconditionFailedException;
 import com.cacutler.recipearchive.exception.ResourceNotFoundException;
+import com.cacutler.recipearchive.mapper.RecipeMapper;
+import com.cacutler.recipearchive.repository.ItemVersionView;
+import com.cacutler.recipearchive.repository.RecipeKeyView;
 import com.cacutler.recipearchive.repository.RecipeRepository;
+import com.cacutler.recipearchive.repository.RecipeSummaryView;
+import com.cacutler.recipearchive.repository.RecipeVersionView;
 import com.cacutler.recipearchive.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed("app.service")// One timer per method, tagged class and method
 public class RecipeService {
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
     @Autowired
     private RecipeRepository recipeRepository;
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private ModelMapper modelMapper;
+    private RecipeMapper recipeMapper;
+    @Autowired
+    private IngredientMatchService ingredientMatchService;
+    @Autowired
+    private RecipeCache recipeCache;
+    @Autowired
+    private RecipeViewTracker recipeViewTracker;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public List<RecipeDTO> getAllRecipes() {
-        return recipeRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeDTO> getRecipes(String cursor, int size, List<String> excludeAllergens) {
+        return loadPage(getRecipeKeys(cursor, size, excludeAllergens));
     }
 
-    public RecipeDTO getRecipeById(Long id) {
-        Recipe recipe = recipeRepository.findById(id)
+    @Transactional(readOnly = true)
+    public RecipePageKeys getRecipeKeys(String cursor, int size, List<String> excludeAllergens) {
+        int limit = clampPageSize(size);
+        long excluded = allergenMask(excludeAllergens);
+        PageRequest fetch = PageRequest.of(0, limit + 1);// One extra row tells us whether another page exists
+        List<RecipeKeyView> keys;
+        if (cursor == null || cursor.isBlank()) {
+            keys = recipeRepository.findFirstPage(excluded, fetch);
+        } else {
+            RecipeCursor after = RecipeCursor.decode(cursor);
+            keys = recipeRepository.findPageAfter(after.getCreatedAt(), after.getId(), excluded, fetch);
+        }
+        return new RecipePageKeys(keys, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeDTO> loadPage(RecipePageKeys keys) {
+        List<RecipeKeyView> page = keys.page();
+        Map<Long, Recipe> recipes = new HashMap<>();
+        if (!page.isEmpty()) {
+            recipeRepository.findAllWithUserByIdIn(page.stream().map(RecipeKeyView::getId).toList())
+                    .forEach(recipe -> recipes.put(recipe.getId(), recipe));
+        }
+        List<RecipeDTO> items = new ArrayList<>(page.size());
+        for (RecipeKeyView key : page) {
+            Recipe recipe = recipes.get(key.getId());
+            if (recipe != null) {// Deleted between the key query and this one
+                items.add(convertToDTO(recipe));
+            }
+        }
+        String nextCursor = keys.hasMore() ? RecipeCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(items, nextCursor, keys.hasMore());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeSummaryDTO> loadSummaryPage(RecipePageKeys keys) {
+        List<RecipeKeyView> page = keys.page();
+        Map<Long, RecipeSummaryView> summaries = new HashMap<>();
+        if (!page.isEmpty()) {
+            recipeRepository.findSummariesByIdIn(page.stream().map(RecipeKeyView::getId).toList())
+                    .forEach(summary -> summaries.put(summary.getId(), summary));
+        }
+        List<RecipeSummaryDTO> items = new ArrayList<>(page.size());
+        for (RecipeKeyView key : page) {
+            RecipeSummaryView summary = summaries.get(key.getId());
+            if (summary != null) {
+                items.add(recipeMapper.toSummaryDTO(summary));
+            }
+        }
+        String nextCursor = keys.hasMore() ? RecipeCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(items, nextCursor, keys.hasMore());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeDTO> searchRecipes(String query, String cursor, int size,
+            List<String> excludeAllergens) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        int limit = clampPageSize(size);
+        int offset = cursor == null || cursor.isBlank() ? 0 : decodeSearchOffset(cursor);
+        List<Recipe> recipes = recipeRepository.search(query.trim(), allergenMask(excludeAllergens), limit + 1,
+                offset);
+        boolean hasMore = recipes.size() > limit;
+        List<Recipe> page = hasMore ? recipes.subList(0, limit) : recipes;
+        String nextCursor = hasMore ? encodeSearchOffset(offset + limit) : null;
+        return new CursorPageDTO<>(page.stream().map(this::convertToDTO).collect(Collectors.toList()), nextCursor,
+                hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeMatchDTO> getCookableRecipes(List<String> pantry, int size) {
+        if (pantry == null || pantry.isEmpty()) {
+            throw new BadRequestException("At least one pantry ingredient is required");
+        }
+        List<IngredientIndex.Match> matches = ingredientMatchService.match(pantry, clampPageSize(size));
+        Map<Long, Recipe> recipes = new HashMap<>();
+        if (!matches.isEmpty()) {
+            recipeRepository.findAllWithUserByIdIn(matches.stream().map(IngredientIndex.Match::recipeId).toList())
+                    .forEach(recipe -> recipes.put(recipe.getId(), recipe));
+        }
+        List<RecipeMatchDTO> results = new ArrayList<>(matches.size());
+        for (IngredientIndex.Match match : matches) {
+            Recipe recipe = recipes.get(match.recipeId());
+            if (recipe != null) {// Deleted since the index was read
+                results.add(new RecipeMatchDTO(convertToDTO(recipe), match.matched(), match.total(),
+                        (double) match.matched() / match.total()));
+            }
+        }
+        return results;
+    }
+
+    // Top ids by decayed view score, then one summary query; views recorded since the last flush are not yet ranked
+    @Transactional(readOnly = true)
+    public List<RecipeTrendingDTO> getTrendingRecipes(int size) {
+        List<RecipeViewTracker.Trending> top = recipeViewTracker.top(clampPageSize(size));
+        Map<Long, RecipeSummaryView> summaries = new HashMap<>();
+        if (!top.isEmpty()) {
+            recipeRepository.findSummariesByIdIn(top.stream().map(RecipeViewTracker.Trending::recipeId).toList())
+                    .forEach(summary -> summaries.put(summary.getId(), summary));
+        }
+        List<RecipeTrendingDTO> results = new ArrayList<>(top.size());
+        for (RecipeViewTracker.Trending trending : top) {
+            RecipeSummaryView summary = summaries.get(trending.recipeId());
+            if (summary != null) {
+                results.add(new RecipeTrendingDTO(recipeMapper.toSummaryDTO(summary), trending.views(),
+                        trending.score()));
+            }
+        }
+        return results;
+    }
+
+    // Served from the detail cache when possible so a 304 costs no database round trip
+    @Transactional(readOnly = true)
+    public RecipeVersionView getRecipeVersion(Long id) {
+        RecipeDTO cached = recipeCache.peek(id);
+        if (cached != null) {
+            return new CachedVersion(cached);
+        }
+        return recipeRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
-        return convertToDTO(recipe);
     }
 
-    public List<RecipeDTO> getRecipesByUserId(Long userId) {
-        return recipeRepository.findByUserId(userId).stream().map(this::convertToDTO).collect(Collectors.toList());
+    // Not read-only: a miss fills the detail cache, and filling it from a lagging replica right after an update
+    // would keep serving the old version until the entry expires
+    public RecipeDTO getRecipeById(Long id) {
+        return recipeCache.get(id, key -> convertToDTO(recipeRepository.findWithUserById(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + key))));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<RecipeDTO> getRecipesByUserId(Long userId, String cursor, int size,
+            List<String> excludeAllergens) {
+        return loadPage(getRecipeKeysByUserId(userId, cursor, size, excludeAllergens));
+    }
+
+    @Transactional(readOnly = true)
+    public RecipePageKeys getRecipeKeysByUserId(Long userId, String cursor, int size, List<String> excludeAllergens) {
+        int limit = clampPageSize(size);
+        long excluded = allergenMask(excludeAllergens);
+        PageRequest fetch = PageRequest.of(0, limit + 1);
+        List<RecipeKeyView> keys;
+        if (cursor == null || cursor.isBlank()) {
+            keys = recipeRepository.findFirstPageByUserId(userId, excluded, fetch);
+        } else {
+            RecipeCursor after = RecipeCursor.decode(cursor);
+            keys = recipeRepository.findPageAfterByUserId(userId, after.getCreatedAt(), after.getId(), excluded,
+                    fetch);
+        }
+        return new RecipePageKeys(keys, limit);
+    }
+
+    // Writes one JSON document per line as rows arrive; the persistence context is cleared every
+    // EXPORT_CLEAR_INTERVAL rows so neither recipes nor their fetched authors accumulate
+    @Transactional(readOnly = true)
+    public long exportRecipes(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = jsonMapper.writerFor(RecipeDTO.class);
+        long count = 0;
+        try (Stream<Recipe> recipes = userId == null ? recipeRepository.streamAll()
+                : recipeRepository.streamByUserId(userId)) {
+            Iterator<Recipe> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                Recipe recipe = iterator.next();
+                out.write(writer.writeValueAsBytes(convertToDTO(recipe)));
+                out.write('\n');
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        out.flush();
+        return count;
     }
 
     public RecipeDTO createRecipe(RecipeCreateDTO recipeCreateDTO) {
         User user = userRepository.findById(recipeCreateDTO.getUserId()).orElseThrow(
                 () -> new ResourceNotFoundException("User not found with id: " + recipeCreateDTO.getUserId()));
-        Recipe recipe = new Recipe();
-        recipe.setUser(user);
-        recipe.setTitle(recipeCreateDTO.getTitle());
-        recipe.setDescription(recipeCreateDTO.getDescription());
-        recipe.setIngredients(recipeCreateDTO.getIngredients());
-        recipe.setInstructions(recipeCreateDTO.getInstructions());
-        recipe.setAllergies(recipeCreateDTO.getAllergies());
-        recipe.setPrepTime(recipeCreateDTO.getPrepTime());
-        recipe.setCookingTime(recipeCreateDTO.getCookingTime());
-        recipe.setServings(recipeCreateDTO.getServings());
-        Recipe savedRecipe = recipeRepository.save(recipe);
+        Recipe savedRecipe = recipeRepository.save(recipeMapper.toEntity(recipeCreateDTO, user));
+        ingredientMatchService.index(savedRecipe.getId(), savedRecipe.getIngredients());
         return convertToDTO(savedRecipe);
     }
 
     public RecipeDTO updateRecipe(Long id, RecipeUpdateDTO recipeUpdateDTO) {
-        Recipe recipe = recipeRepository.findById(id)
+        Recipe recipe = recipeRepository.findWithUserById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
         if (recipeUpdateDTO.getTitle() != null) {
             recipe.setTitle(recipeUpdateDTO.getTitle());
@@ -73,6 +278,7 @@ public class RecipeService {
         }
         if (recipeUpdateDTO.getAllergies() != null) {
             recipe.setAllergies(recipeUpdateDTO.getAllergies());
+            recipe.setAllergenMask(Allergen.maskOf(recipeUpdateDTO.getAllergies()));
         }
         if (recipeUpdateDTO.getPrepTime() != null) {
             recipe.setPrepTime(recipeUpdateDTO.getPrepTime());
@@ -83,19 +289,147 @@ public class RecipeService {
         if (recipeUpdateDTO.getServings() != null) {
             recipe.setServings(recipeUpdateDTO.getServings());
         }
-        Recipe updatedRecipe = recipeRepository.save(recipe);
+        Recipe updatedRecipe = recipeRepository.saveAndFlush(recipe);// Flushed so the DTO carries the new version
+        AfterCommit.run(() -> recipeCache.evict(id));
+        if (recipeUpdateDTO.getIngredients() != null) {
+            ingredientMatchService.index(updatedRecipe.getId(), updatedRecipe.getIngredients());
+        }
         return convertToDTO(updatedRecipe);
     }
 
+    // If-Match path: a single UPDATE of just the supplied columns, guarded by the version, with nothing read first.
+    // Returns the new version, or null when expectedVersion is null ("*") and the row was updated unconditionally.
+    public Long updateRecipeIfMatch(Long id, RecipeUpdateDTO recipeUpdateDTO, Long expectedVersion) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Recipe> update = builder.createCriteriaUpdate(Recipe.class);
+        Root<Recipe> recipe = update.from(Recipe.class);
+        setIfPresent(update, "title", recipeUpdateDTO.getTitle());
+        setIfPresent(update, "description", recipeUpdateDTO.getDescription());
+        setIfPresent(update, "ingredients", recipeUpdateDTO.getIngredients());
+        setIfPresent(update, "instructions", recipeUpdateDTO.getInstructions());
+        if (recipeUpdateDTO.getAllergies() != null) {
+            update.set("allergies", recipeUpdateDTO.getAllergies());
+            update.set("allergenMask", Allergen.maskOf(recipeUpdateDTO.getAllergies()));
+        }
+        setIfPresent(update, "prepTime", recipeUpdateDTO.getPrepTime());
+        setIfPresent(update, "cookingTime", recipeUpdateDTO.getCookingTime());
+        setIfPresent(update, "servings", recipeUpdateDTO.getServings());
+        update.set("updatedAt", LocalDateTime.now());
+        update.set(recipe.<Long>get("version"), builder.sum(recipe.<Long>get("version"), 1L));
+        Predicate target = builder.equal(recipe.get("id"), id);
+        update.where(expectedVersion == null ? target
+                : builder.and(target, builder.equal(recipe.get("version"), expectedVersion)));
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            // Only a failed update pays for a read, to tell a missing recipe from a stale version
+            ItemVersionView current = recipeRepository.findVersionById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
+            throw new PreconditionFailedException(
+                    "Recipe " + id + " is at version " + current.getVersion() + ", not " + expectedVersion);
+        }
+        AfterCommit.run(() -> recipeCache.evict(id));
+        if (recipeUpdateDTO.getIngredients() != null) {
+            ingredientMatchService.index(id, recipeUpdateDTO.getIngredients());
+        }
+        return expectedVersion == null ? null : expectedVersion + 1;
+    }
+
     public void deleteRecipe(Long id) {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
-        recipeRepository.delete(recipe);
+        if (recipeRepository.bulkDeleteById(id) == 0) {
+            throw new ResourceNotFoundException("Recipe not found with id: " + id);
+        }
+        AfterCommit.run(() -> recipeCache.evict(id));
+        ingredientMatchService.remove(id);
+    }
+
+    // One DELETE for the whole batch; ids that no longer exist are counted as not deleted rather than failing it
+    public RecipeBatchDeleteResultDTO deleteRecipes(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        int deleted = recipeRepository.bulkDeleteByIdIn(distinct);
+        AfterCommit.run(() -> distinct.forEach(recipeCache::evict));
+        distinct.forEach(ingredientMatchService::remove);
+        return new RecipeBatchDeleteResultDTO(distinct.size(), deleted);
+    }
+
+    // Ranked results have no stable keyset, so search cursors wrap an offset into the match set
+    private String encodeSearchOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("s" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int decodeSearchOffset(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int offset = raw.startsWith("s") ? Integer.parseInt(raw.substring(1)) : -1;
+            if (offset < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // Accepts Allergen names (TREE_NUT) or plain keywords (nuts, dairy)
+    private long allergenMask(List<String> allergens) {
+        if (allergens == null) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (String value : allergens) {
+            if (value.isBlank()) {
+                continue;
+            }
+            long bits;
+            try {
+                bits = Allergen.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_')).bit();
+            } catch (IllegalArgumentException e) {
+                bits = Allergen.maskOf(value);
+            }
+            if (bits == 0L) {
+                throw new BadRequestException("Unknown allergen: " + value);
+            }
+            mask |= bits;
+        }
+        return mask;
+    }
+
+    private int clampPageSize(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
     private RecipeDTO convertToDTO(Recipe recipe) {
-        RecipeDTO dto = modelMapper.map(recipe, RecipeDTO.class);
-        dto.setUserId(recipe.getUser().getId());
-        return dto;
+        return recipeMapper.toDTO(recipe);
+    }
+
+    private static void setIfPresent(CriteriaUpdate<?> update, String attribute, Object value) {
+        if (value != null) {
+            update.set(attribute, value);
+        }
+    }
+
+    // A cached detail answers a conditional GET without touching the database
+    private record CachedVersion(RecipeDTO recipe) implements RecipeVersionView {
+        @Override
+        public Long getId() {
+            return recipe.getId();
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return recipe.getUpdatedAt();
+        }
+
+        @Override
+        public Long getVersion() {
+            return recipe.getVersion();
+        }
+
+        @Override
+        public LocalDateTime getAuthorUpdatedAt() {
+            return recipe.getAuthorUpdatedAt();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.cacutler.recipearchive.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Counts recipe detail views without a database write on the request path. Each viewed recipe gets a LongAdder,
+// whose striped cells let concurrent viewers of one hot recipe increment without contending on a single word; a
+// background thread drains them into recipe_views with one upsert per interval. Request threads only increment.
+@Component
+public class RecipeViewTracker implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RecipeViewTracker.class);
+    private static final Instant SCORE_EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    // Views of recipes deleted since are dropped by the join; id order keeps concurrent flushes from deadlocking.
+    // On conflict the scores are added in the log domain, log2(2^a + 2^b), skipping the correction term where
+    // 2^-d would underflow.
+    private static final String UPSERT = "INSERT INTO recipe_views (recipe_id, view_count, score) "
+            + "SELECT v.id, v.views, v.score FROM unnest(?::bigint[], ?::bigint[], ?::float8[]) AS v(id, views, score) "
+            + "JOIN recipes r ON r.id = v.id ORDER BY v.id "
+            + "ON CONFLICT (recipe_id) DO UPDATE SET view_count = recipe_views.view_count + EXCLUDED.view_count, "
+            + "score = GREATEST(recipe_views.score, EXCLUDED.score) "
+            + "+ CASE WHEN abs(recipe_views.score - EXCLUDED.score) > 60 THEN 0 "
+            + "ELSE ln(1 + power(2, -abs(recipe_views.score - EXCLUDED.score))) / ln(2) END";
+    private static final String TOP = "SELECT recipe_id, view_count, score FROM recipe_views "
+            + "ORDER BY score DESC LIMIT ?";
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final double halfLifeHours;
+    private final ScheduledExecutorService flusher;
+    // Two overlapping drains could both read an adder's sum before either subtracts it and count those views twice
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // score is the view count decayed to now: a view one half-life ago counts 0.5
+    public record Trending(long recipeId, long views, double score) {
+    }
+
+    public RecipeViewTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${app.views.flush-interval:10s}") Duration flushInterval,
+            @Value("${app.views.half-life:24h}") Duration halfLife) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.halfLifeHours = halfLife.toMillis() / 3_600_000.0;
+        Gauge.builder("app.views.pending", pending, Map::size).description("Recipes with views not yet flushed")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("view-flush").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void record(Long recipeId) {
+        LongAdder views = pending.get(recipeId);
+        if (views == null) {
+            views = pending.computeIfAbsent(recipeId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    // Subtracting what was read, rather than resetting, carries increments that land mid-drain into the next flush.
+    // Adders idle for a whole interval are removed; a view racing with that removal is the only one that can be lost.
+    public int flush() {
+        flushLock.lock();
+        try {
+            return drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int drain() {
+        TreeMap<Long, Long> drained = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sum();
+            if (views == 0) {
+                pending.remove(entry.getKey(), entry.getValue());
+            } else {
+                entry.getValue().add(-views);
+                drained.put(entry.getKey(), views);
+            }
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        double now = decayClock();
+        Long[] ids = drained.keySet().toArray(Long[]::new);
+        Long[] views = drained.values().toArray(Long[]::new);
+        Double[] scores = drained.values().stream().map(count -> Math.log(count) / Math.log(2) + now)
+                .toArray(Double[]::new);
+        try {
+            jdbcTemplate.update(UPSERT, statement -> {
+                Connection connection = statement.getConnection();
+                statement.setArray(1, connection.createArrayOf("bigint", ids));
+                statement.setArray(2, connection.createArrayOf("bigint", views));
+                statement.setArray(3, connection.createArrayOf("float8", scores));
+            });
+        } catch (RuntimeException e) {
+            drained.forEach((id, count) -> pending.computeIfAbsent(id, key -> new LongAdder()).add(count));
+            throw e;
+        }
+        return drained.size();
+    }
+
+    public List<Trending> top(int limit) {
+        double now = decayClock();
+        return jdbcTemplate.query(TOP, (row, index) -> new Trending(row.getLong(1), row.getLong(2),
+                Math.pow(2, row.getDouble(3) - now)), limit);
+    }
+
+    // Half-lives elapsed since SCORE_EPOCH: the log2 weight of a view made right now
+    private double decayClock() {
+        return Duration.between(SCORE_EPOCH, Instant.now()).toMillis() / 3_600_000.0 / halfLifeHours;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {// Keeps the schedule alive; the counts are retried next interval
+            log.warn("Flushing recipe views failed: {}", e.getMessage());
+        }
+    }
+
+    // Lets a scheduled flush already in its upsert finish rather than interrupting it
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Recipe view flush still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();// Views since the last interval would otherwise be lost on a clean shutdown
+    }
+}
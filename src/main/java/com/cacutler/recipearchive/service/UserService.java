@@ -4,45 +4,86 @@ import com.cacutler.recipearchive.dto.UserCreateDTO;
 import com.cacutler.recipearchive.dto.UserUpdateDTO;
 import com.cacutler.recipearchive.entity.User;
 import com.cacutler.recipearchive.dto.UserDTO;
+import com.cacutler.recipearchive.exception.PreconditionFailedException;
 import com.cacutler.recipearchive.exception.ResourceNotFoundException;
+import com.cacutler.recipearchive.mapper.UserMapper;
+import com.cacutler.recipearchive.repository.CollectionVersionView;
+import com.cacutler.recipearchive.repository.ItemVersionView;
+import com.cacutler.recipearchive.repository.RecipeRepository;
 import com.cacutler.recipearchive.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import com.cacutler.recipearchive.security.PasswordHasher;
+import com.cacutler.recipearchive.security.PrincipalCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("app.service")// One timer per method, tagged class and method
 public class UserService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private ModelMapper modelMapper;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private IngredientMatchService ingredientMatchService;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private RecipeCache recipeCache;
+    @Autowired
+    private PasswordHasher passwordHasher;
+    @PersistenceContext
+    private EntityManager entityManager;
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream().map(user -> modelMapper.map(user, UserDTO.class))
-                .collect(Collectors.toList());
+        return userRepository.findAll().stream().map(userMapper::toDTO).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public ItemVersionView getUserVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public CollectionVersionView getUsersVersion() {
+        return userRepository.findCollectionVersion();
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return modelMapper.map(user, UserDTO.class);
+        return userMapper.toDTO(user);
     }
 
+    // Outside a transaction, like AuthService: no connection is held while the hash waits on the BCrypt pool.
+    // The save runs in the repository's own transaction once the hash is ready.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDTO createUser(UserCreateDTO userCreateDTO) {
         User user = new User();
         user.setFirstName(userCreateDTO.getFirstName());
         user.setLastName(userCreateDTO.getLastName());
         user.setUsername(userCreateDTO.getUsername());
         user.setEmail(userCreateDTO.getEmail());
-        user.setPassword(passwordEncoder.encode(userCreateDTO.getPassword()));
+        user.setPassword(passwordHasher.encode(userCreateDTO.getPassword()));
         User savedUser = userRepository.save(user);
-        return modelMapper.map(savedUser, UserDTO.class);
+        return userMapper.toDTO(savedUser);
     }
 
     public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) {
@@ -54,13 +95,51 @@ public class UserService {
         if (userUpdateDTO.getLastName() != null) {
             user.setLastName(userUpdateDTO.getLastName());
         }
-        User updatedUser = userRepository.save(user);
-        return modelMapper.map(updatedUser, UserDTO.class);
+        User updatedUser = userRepository.saveAndFlush(user);// Flushed so the DTO carries the new version
+        AfterCommit.run(() -> {
+            principalCache.evict(updatedUser.getUsername());
+            recipeCache.evictByAuthor(id);// Cached details carry the old display name
+        });
+        return userMapper.toDTO(updatedUser);
     }
 
+    // Same contract as RecipeService.updateRecipeIfMatch. Names are not part of the cached principal, so there is
+    // no username to look up; only the author's cached recipe details are evicted.
+    public Long updateUserIfMatch(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = builder.createCriteriaUpdate(User.class);
+        Root<User> user = update.from(User.class);
+        if (userUpdateDTO.getFirstName() != null) {
+            update.set("firstName", userUpdateDTO.getFirstName());
+        }
+        if (userUpdateDTO.getLastName() != null) {
+            update.set("lastName", userUpdateDTO.getLastName());
+        }
+        update.set("updatedAt", LocalDateTime.now());
+        update.set(user.<Long>get("version"), builder.sum(user.<Long>get("version"), 1L));
+        Predicate target = builder.equal(user.get("id"), id);
+        update.where(expectedVersion == null ? target
+                : builder.and(target, builder.equal(user.get("version"), expectedVersion)));
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            ItemVersionView current = userRepository.findVersionById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+            throw new PreconditionFailedException(
+                    "User " + id + " is at version " + current.getVersion() + ", not " + expectedVersion);
+        }
+        AfterCommit.run(() -> recipeCache.evictByAuthor(id));
+        return expectedVersion == null ? null : expectedVersion + 1;
+    }
+
+    // Two id-only reads and one DELETE however many recipes the user has; the database cascade removes them
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
+        String username = userRepository.findUsernameById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        userRepository.delete(user);
+        List<Long> recipeIds = recipeRepository.findIdsByUserId(id);
+        userRepository.bulkDeleteById(id);
+        AfterCommit.run(() -> {
+            principalCache.evict(username);
+            recipeIds.forEach(recipeCache::evict);
+        });
+        recipeIds.forEach(ingredientMatchService::remove);
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+-- Keyset pagination orders by (created_at, id), so created_at must always be present
+UPDATE recipes SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE recipes ALTER COLUMN created_at SET NOT NULL;
+-- Index-only walk for GET /recipes pages
+CREATE INDEX idx_recipes_created_at_id ON recipes(created_at DESC, id DESC);
+-- Covers GET /recipes/user/{userId} pages and replaces the single-column user_id index
+CREATE INDEX idx_recipes_user_created_at_id ON recipes(user_id, created_at DESC, id DESC);
+DROP INDEX idx_recipes_user_id;
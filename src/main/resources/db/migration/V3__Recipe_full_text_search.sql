@@ -0,0 +1,7 @@
+-- Weighted search document: title (A) > description (B) > ingredients (C)
+ALTER TABLE recipes ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(ingredients, '')), 'C')
+) STORED;
+CREATE INDEX idx_recipes_search_vector ON recipes USING GIN (search_vector);
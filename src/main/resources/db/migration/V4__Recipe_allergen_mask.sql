@@ -0,0 +1,14 @@
+-- Bit positions follow com.cacutler.recipearchive.entity.Allergen ordinals
+ALTER TABLE recipes ADD COLUMN allergen_mask BIGINT NOT NULL DEFAULT 0;
+UPDATE recipes SET allergen_mask =
+      (CASE WHEN lower(allergies) ~ '\m(milk|dairy|lactose|cheese|butter|cream|yogh?urt|whey|casein)\M' THEN 1 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(eggs?)\M' THEN 2 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(fish|salmon|tuna|cod|anchov(y|ies))\M' THEN 4 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(shellfish|shrimps?|prawns?|crabs?|lobsters?|crustaceans?|mollus(c|k)s?|clams?|mussels?|oysters?|scallops?)\M' THEN 8 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(tree ?nuts?|nuts|almonds?|walnuts?|pecans?|cashews?|pistachios?|hazelnuts?|macadamias?)\M' THEN 16 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(peanuts?)\M' THEN 32 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(wheat|flour)\M' THEN 64 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(soy|soya|soybeans?|tofu)\M' THEN 128 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(sesame|tahini)\M' THEN 256 ELSE 0 END)
+    | (CASE WHEN lower(allergies) ~ '\m(gluten|barley|rye)\M' THEN 512 ELSE 0 END)
+WHERE allergies IS NOT NULL AND allergies <> '';
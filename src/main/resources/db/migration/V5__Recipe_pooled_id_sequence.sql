@@ -0,0 +1,4 @@
+-- Hibernate's pooled optimizer reserves ids [value - 49, value] per nextval, letting inserts be batched
+ALTER SEQUENCE recipes_id_seq INCREMENT BY 50;
+-- Make the next reserved block start after every existing id
+SELECT setval('recipes_id_seq', COALESCE((SELECT MAX(id) FROM recipes), 0) + 50, false);
@@ -0,0 +1,3 @@
+-- Bumped on every write; ETags carry it so If-Match updates can check it in the UPDATE itself
+ALTER TABLE recipes ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Written only by RecipeViewTracker's periodic flush, one multi-row upsert per interval.
+-- score is log2 of an exponentially decayed view count, measured forward from a fixed epoch
+-- (log2(views) + hours since epoch / half-life hours). Adding views only ever raises it, so ordering by it ranks
+-- by decayed popularity at any moment without a decay sweep, and it never overflows.
+CREATE TABLE recipe_views (
+    recipe_id BIGINT PRIMARY KEY,
+    view_count BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    CONSTRAINT fk_recipe_views_recipe FOREIGN KEY (recipe_id) REFERENCES recipes(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_recipe_views_score ON recipe_views(score DESC);
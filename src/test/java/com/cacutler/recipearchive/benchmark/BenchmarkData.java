@@ -0,0 +1,45 @@
+package com.cacutler.recipearchive.benchmark;
+
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import java.time.LocalDateTime;
+
+// Synthetic entities with realistic text sizes shared by the benchmarks
+final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("Grace");
+        user.setLastName("Hopper");
+        user.setUsername("grace" + id);
+        user.setEmail("grace" + id + "@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv1234567890ABCDEFGHIJKLMNOPQRSTU");
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return user;
+    }
+
+    static Recipe recipe(long id, User user) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setUser(user);
+        recipe.setTitle("Grandma's buttermilk pancakes #" + id);
+        recipe.setDescription("Light, fluffy pancakes that have been a Sunday breakfast staple for three generations.");
+        recipe.setIngredients("2 cups all-purpose flour\n2 tbsp sugar\n2 tsp baking powder\n1 tsp baking soda\n"
+                + "1/2 tsp salt\n2 cups buttermilk\n2 large eggs\n1/4 cup unsalted butter, melted\n1 tsp vanilla");
+        recipe.setInstructions("Whisk the dry ingredients together in a large bowl. ".repeat(4)
+                + "In a second bowl, beat the eggs, buttermilk, melted butter and vanilla. ".repeat(4)
+                + "Fold the wet ingredients into the dry until just combined; a few lumps are fine. ".repeat(4)
+                + "Cook on a hot griddle until bubbles form, flip, and cook until golden.");
+        recipe.setAllergies("egg, milk, wheat");
+        recipe.setPrepTime(10);
+        recipe.setCookingTime(20);
+        recipe.setServings(4);
+        recipe.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        recipe.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0));
+        return recipe;
+    }
+}
@@ -0,0 +1,65 @@
+package com.cacutler.recipearchive.benchmark;
+
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.dto.UserDTO;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.mapper.RecipeMapper;
+import com.cacutler.recipearchive.mapper.UserMapper;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-object cost of the previous reflective ModelMapper conversion ("before") vs the hand-written mappers ("after")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final RecipeMapper recipeMapper = new RecipeMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private Recipe recipe;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(1L);
+        recipe = BenchmarkData.recipe(1L, user);
+        modelMapper.map(recipe, RecipeDTO.class);// Build type maps outside the measurement
+        modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public RecipeDTO recipeModelMapper() {
+        RecipeDTO dto = modelMapper.map(recipe, RecipeDTO.class);
+        dto.setUserId(recipe.getUser().getId());
+        return dto;
+    }
+
+    @Benchmark
+    public RecipeDTO recipeHandWritten() {
+        return recipeMapper.toDTO(recipe);
+    }
+
+    @Benchmark
+    public UserDTO userModelMapper() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userHandWritten() {
+        return userMapper.toDTO(user);
+    }
+}
@@ -0,0 +1,98 @@
+package com.cacutler.recipearchive.benchmark;
+
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.loadtest.LoadTestData;
+import com.cacutler.recipearchive.mapper.RecipeMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+// Encode, encode + gzip (what Tomcat does above server.compression.min-response-size) and decode of a
+// List<RecipeDTO> per format. Recipe text varies per item so gzip cannot just match one repeated recipe.
+// Bytes on the wire are printed once per trial, before the timings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+    @Param({"1", "20", "100"})
+    private int size;
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private List<RecipeDTO> dtos;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, RecipeDTO.class);
+        RecipeMapper recipeMapper = new RecipeMapper();
+        Random random = new Random(42);
+        User user = BenchmarkData.user(1L);
+        dtos = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Recipe recipe = BenchmarkData.recipe(id, user);
+            recipe.setTitle(LoadTestData.title(random));
+            recipe.setDescription(LoadTestData.description(random));
+            recipe.setIngredients(LoadTestData.ingredients(random));
+            recipe.setInstructions(LoadTestData.instructions(random));
+            dtos.add(recipeMapper.toDTO(recipe));
+        }
+        encoded = serialize();
+        System.out.printf("%n%s, %d recipes: %d bytes, %d bytes gzipped%n", format, size, encoded.length,
+                gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(dtos));
+    }
+
+    @Benchmark
+    public List<RecipeDTO> deserialize() {
+        return mapper.readValue(encoded, listType);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {// Default level, same as Tomcat
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
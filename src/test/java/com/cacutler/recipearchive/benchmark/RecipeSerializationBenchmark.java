@@ -0,0 +1,61 @@
+package com.cacutler.recipearchive.benchmark;
+
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.mapper.RecipeMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+// Mapping (what RecipeService.convertToDTO does per row) and JSON serialization of a list response
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeSerializationBenchmark {
+    @Param({"1", "20", "100", "1000"})
+    private int size;
+    private final RecipeMapper recipeMapper = new RecipeMapper();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<Recipe> recipes;
+    private List<RecipeDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkData.user(1L);
+        recipes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            recipes.add(BenchmarkData.recipe(id, user));
+        }
+        dtos = convert();
+    }
+
+    @Benchmark
+    public List<RecipeDTO> convert() {
+        List<RecipeDTO> result = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            result.add(recipeMapper.toDTO(recipe));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(dtos);
+    }
+}
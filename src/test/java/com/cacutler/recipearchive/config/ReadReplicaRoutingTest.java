@@ -0,0 +1,90 @@
+package com.cacutler.recipearchive.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cacutler.recipearchive.dto.UserCreateDTO;
+import com.cacutler.recipearchive.dto.UserDTO;
+import com.cacutler.recipearchive.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+// Two independent local servers stand in for primary and replica. They do not replicate, so a row written to only
+// one of them shows which server a transaction actually ran on.
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+    @Autowired
+    private UserService userService;
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) throws IOException {
+        primary = EmbeddedPostgres.start();
+        replica = EmbeddedPostgres.start();
+        Flyway.configure().dataSource(replica.getPostgresDatabase()).locations("classpath:db/migration").load()
+                .migrate();// The app migrates only the primary; a real replica gets the schema through replication
+        registry.add("spring.datasource.url", () -> primary.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("app.datasource.replica.url", () -> replica.getJdbcUrl("postgres", "postgres"));
+        registry.add("app.datasource.replica.username", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        primary.close();
+        replica.close();
+    }
+
+    @BeforeEach
+    void cleanDatabases() {
+        new JdbcTemplate(primary.getPostgresDatabase()).execute("TRUNCATE recipes, users CASCADE");
+        new JdbcTemplate(replica.getPostgresDatabase()).execute("TRUNCATE recipes, users CASCADE");
+    }
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        new JdbcTemplate(replica.getPostgresDatabase()).update(
+                "INSERT INTO users (username, email, password) VALUES ('only-on-replica', 'r@example.com', 'x')");
+
+        assertThat(userService.getAllUsers()).extracting(UserDTO::getUsername).containsExactly("only-on-replica");
+    }
+
+    @Test
+    void writesRunOnThePrimary() {
+        userService.createUser(new UserCreateDTO("Ada", "Lovelace", "ada", "ada@example.com", "analytical-engine"));
+
+        assertThat(count(primary)).isEqualTo(1);
+        assertThat(count(replica)).isZero();
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws SQLException {
+        DriverManagerDataSource closedPort = new DriverManagerDataSource("jdbc:postgresql://localhost:1/none");
+        try (ReplicaDataSource routing = new ReplicaDataSource(closedPort, primary.getPostgresDatabase(),
+                Duration.ofSeconds(2), Duration.ofHours(1));
+                Connection connection = routing.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains(String.valueOf(primary.getPort()));
+            assertThat(routing.inUse()).isFalse();
+        }
+    }
+
+    private static Integer count(EmbeddedPostgres server) {
+        return new JdbcTemplate(server.getPostgresDatabase()).queryForObject("SELECT count(*) FROM users",
+                Integer.class);
+    }
+}
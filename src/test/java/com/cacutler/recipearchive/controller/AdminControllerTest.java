@@ -0,0 +1,47 @@
+package com.cacutler.recipearchive.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.support.QueryCountTest;
+import com.cacutler.recipearchive.support.StatementCounts;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class AdminControllerTest extends QueryCountTest {
+    private static final String ADMIN = "cook-admin";// Listed in app.security.admins for the test profile
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void batchDeleteIsOneStatement(int recipes) throws Exception {
+        List<Recipe> created = createRecipes(recipes, true);
+        String token = bearer(createUser(ADMIN));
+        perform(post("/admin/recipes/batch-delete").header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON).content(body(created)), status().isOk(),
+                new StatementCounts(0, 0, 0, 1))
+                .andExpect(jsonPath("$.requested").value(recipes))
+                .andExpect(jsonPath("$.deleted").value(recipes));
+        assertThat(recipeRepository.count()).isZero();
+    }
+
+    @Test
+    void nonAdminsAreForbidden() throws Exception {
+        List<Recipe> created = createRecipes(1, false);
+        perform(post("/admin/recipes/batch-delete").header(HttpHeaders.AUTHORIZATION, bearer(created.get(0).getUser()))
+                .contentType(MediaType.APPLICATION_JSON).content(body(created)), status().isForbidden(),
+                StatementCounts.selects(0));
+    }
+
+    private static String body(List<Recipe> recipes) {
+        return recipes.stream().map(recipe -> String.valueOf(recipe.getId()))
+                .collect(Collectors.joining(", ", "{\"ids\": [", "]}"));
+    }
+}
@@ -0,0 +1,27 @@
+package com.cacutler.recipearchive.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.support.QueryCountTest;
+import com.cacutler.recipearchive.support.StatementCounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class AuthControllerTest extends QueryCountTest {
+    @Test
+    void loginLoadsTheUserOnce() throws Exception {
+        User user = createUser();
+        String body = "{\"username\": \"%s\", \"password\": \"%s\"}".formatted(user.getUsername(), PASSWORD);
+        perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(body), status().isOk(),
+                StatementCounts.selects(1));
+    }
+
+    @Test
+    void unknownUserCostsOneLookup() throws Exception {
+        String body = "{\"username\": \"nobody\", \"password\": \"%s\"}".formatted(PASSWORD);
+        perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(body),
+                status().isUnauthorized(), StatementCounts.selects(1));
+    }
+}
@@ -1,5 +1,219 @@
 package com.cacutler.recipearchive.controller;
 
-public class RecipeControllerTest {
-    
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.service.IngredientMatchService;
+import com.cacutler.recipearchive.service.RecipeViewTracker;
+import com.cacutler.recipearchive.support.QueryCountTest;
+import com.cacutler.recipearchive.support.StatementCounter;
+import com.cacutler.recipearchive.support.StatementCounts;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class RecipeControllerTest extends QueryCountTest {
+    @Autowired
+    private IngredientMatchService ingredientMatchService;
+    @Autowired
+    private RecipeViewTracker recipeViewTracker;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void listIsKeyQueryPlusOneHydration(int recipes) throws Exception {
+        createRecipes(recipes, true);
+        perform(get("/recipes"), status().isOk(), StatementCounts.selects(2))
+                .andExpect(jsonPath("$.items.length()").value(Math.min(recipes, 20)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void summaryListIsKeyQueryPlusOneProjection(int recipes) throws Exception {
+        createRecipes(recipes, true);
+        perform(get("/recipes").param("fields", "summary"), status().isOk(), StatementCounts.selects(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void userListIsKeyQueryPlusOneHydration(int recipes) throws Exception {
+        Long userId = createRecipes(recipes, false).get(0).getUser().getId();
+        perform(get("/recipes/user/{userId}", userId), status().isOk(), StatementCounts.selects(2));
+    }
+
+    @Test
+    void notModifiedListRunsOnlyTheKeyQuery() throws Exception {
+        createRecipes(5, true);
+        String etag = mockMvc.perform(get("/recipes")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        perform(get("/recipes").header(HttpHeaders.IF_NONE_MATCH, etag), status().isNotModified(),
+                StatementCounts.selects(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void searchBatchesAuthorLoads(int recipes) throws Exception {
+        createRecipes(recipes, true);
+        perform(get("/recipes/search").param("q", "pancakes"), status().isOk(), StatementCounts.selects(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void matchHydratesInOneQuery(int recipes) throws Exception {
+        createRecipes(recipes, true)
+                .forEach(recipe -> ingredientMatchService.index(recipe.getId(), recipe.getIngredients()));
+        perform(get("/recipes/match").param("pantry", "egg", "flour"), status().isOk(), StatementCounts.selects(1));
+    }
+
+    @Test
+    void detailIsVersionPlusFetchThenServedFromCache() throws Exception {
+        Long id = createRecipes(1, false).get(0).getId();
+        perform(get("/recipes/{id}", id), status().isOk(), StatementCounts.selects(2));
+        perform(get("/recipes/{id}", id), status().isOk(), StatementCounts.selects(0));
+    }
+
+    // The detail shows the author's name, so renaming the author evicts it and changes its ETag
+    @Test
+    void authorRenameInvalidatesTheDetail() throws Exception {
+        Recipe recipe = createRecipes(1, false).get(0);
+        String etag = mockMvc.perform(get("/recipes/{id}", recipe.getId())).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/users/{id}", recipe.getUser().getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer(recipe.getUser())).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\": \"Renamed\"}")).andExpect(status().isOk());
+        perform(get("/recipes/{id}", recipe.getId()).header(HttpHeaders.IF_NONE_MATCH, etag), status().isOk(),
+                StatementCounts.selects(2)).andExpect(jsonPath("$.displayName").value(Matchers.startsWith("Renamed")));
+    }
+
+    // Recipe i gets i + 1 views, so the newest recipe leads
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void viewsFlushInOneUpsertAndTrendingHydratesInOneQuery(int recipes) throws Exception {
+        List<Recipe> created = createRecipes(recipes, true);
+        for (int i = 0; i < recipes; i++) {
+            for (int view = 0; view <= i; view++) {
+                recipeViewTracker.record(created.get(i).getId());
+            }
+        }
+        StatementCounter.reset();
+        recipeViewTracker.flush();
+        assertThat(StatementCounts.of(StatementCounter.statements())).isEqualTo(new StatementCounts(0, 1, 0, 0));
+        perform(get("/recipes/trending"), status().isOk(), StatementCounts.selects(2))
+                .andExpect(jsonPath("$.length()").value(Math.min(recipes, 20)))
+                .andExpect(jsonPath("$[0].recipe.id").value(created.get(recipes - 1).getId()))
+                .andExpect(jsonPath("$[0].views").value(recipes));
+    }
+
+    @Test
+    void detailViewIsCountedWithoutAStatement() throws Exception {
+        Long id = createRecipes(1, false).get(0).getId();
+        mockMvc.perform(get("/recipes/{id}", id));
+        perform(get("/recipes/{id}", id), status().isOk(), StatementCounts.selects(0));
+        recipeViewTracker.flush();
+        mockMvc.perform(get("/recipes/trending")).andExpect(jsonPath("$[0].views").value(2));
+    }
+
+    @Test
+    void cborIsNegotiatedWithoutExtraQueries() throws Exception {
+        createRecipes(3, true);
+        perform(get("/recipes").accept(MediaType.APPLICATION_CBOR), status().isOk(), StatementCounts.selects(2))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues(HttpHeaders.VARY, Matchers.hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void exportStreamsFromOneQuery(int recipes) throws Exception {
+        createRecipes(recipes, true);
+        String token = bearer(createUser());
+        perform(get("/recipes/export").header(HttpHeaders.AUTHORIZATION, token), status().isOk(),
+                StatementCounts.selects(1));
+    }
+
+    @Test
+    void createLoadsOwnerAndInserts() throws Exception {
+        User user = createUser();
+        String body = """
+                {"userId": %d, "title": "Toast", "ingredients": "1 slice bread", "instructions": "Toast it"}
+                """.formatted(user.getId());
+        perform(post("/recipes").header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .contentType(MediaType.APPLICATION_JSON).content(body), status().isCreated(),
+                new StatementCounts(1, 1, 0, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void importResolvesOwnersOnceAndInsertsInOneBatch(int records) throws Exception {
+        User user = createUser();
+        String record = """
+                {"userId": %d, "title": "Toast", "ingredients": "1 slice bread", "instructions": "Toast it"}
+                """.formatted(user.getId()).strip();
+        String body = String.join("\n", Collections.nCopies(records, record));
+        perform(post("/recipes/import").header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .contentType("application/x-ndjson").content(body), status().isOk(),
+                new StatementCounts(1, 1, 0, 0)).andExpect(jsonPath("$.imported").value(records));
+    }
+
+    @Test
+    void updateLoadsOnceAndUpdatesOnce() throws Exception {
+        Recipe recipe = createRecipes(1, false).get(0);
+        perform(put("/recipes/{id}", recipe.getId()).header(HttpHeaders.AUTHORIZATION, bearer(recipe.getUser()))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\": \"Renamed\"}"), status().isOk(),
+                new StatementCounts(1, 0, 1, 0));
+    }
+
+    @Test
+    void conditionalUpdateIsOneStatement() throws Exception {
+        Recipe recipe = createRecipes(1, false).get(0);
+        String etag = mockMvc.perform(get("/recipes/{id}", recipe.getId())).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        perform(put("/recipes/{id}", recipe.getId()).header(HttpHeaders.AUTHORIZATION, bearer(recipe.getUser()))
+                .header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"), status().isNoContent(), new StatementCounts(0, 0, 1, 0))
+                .andExpect(header().string(HttpHeaders.ETAG, etag.replace("-v0-", "-v1-")));
+        mockMvc.perform(get("/recipes/{id}", recipe.getId())).andExpect(jsonPath("$.title").value("Renamed"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    // The failed UPDATE is followed by one read to tell a stale version from a missing recipe
+    @Test
+    void staleConditionalUpdateIsPreconditionFailed() throws Exception {
+        Recipe recipe = createRecipes(1, false).get(0);
+        String token = bearer(recipe.getUser());
+        String stale = "\"r" + recipe.getId() + "-v0\"";
+        mockMvc.perform(put("/recipes/{id}", recipe.getId()).header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_MATCH, stale).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"servings\": 2}")).andExpect(status().isNoContent());
+        perform(put("/recipes/{id}", recipe.getId()).header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_MATCH, stale).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"servings\": 3}"), status().isPreconditionFailed(), new StatementCounts(1, 0, 1, 0));
+    }
+
+    @Test
+    void deleteIsOneStatement() throws Exception {
+        Recipe recipe = createRecipes(1, false).get(0);
+        perform(delete("/recipes/{id}", recipe.getId()).header(HttpHeaders.AUTHORIZATION, bearer(recipe.getUser())),
+                status().isNoContent(), new StatementCounts(0, 0, 0, 1));
+    }
+
+    @Test
+    void deleteOfMissingRecipeIsNotFound() throws Exception {
+        User user = createUser();
+        perform(delete("/recipes/{id}", 1_000_000L).header(HttpHeaders.AUTHORIZATION, bearer(user)),
+                status().isNotFound(), new StatementCounts(0, 0, 0, 1));
+    }
 }
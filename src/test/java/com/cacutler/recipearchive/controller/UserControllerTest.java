@@ -1,5 +1,71 @@
 package com.cacutler.recipearchive.controller;
 
-public class UserControllerTest {
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-}
\ No newline at end of file
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.support.QueryCountTest;
+import com.cacutler.recipearchive.support.StatementCounts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class UserControllerTest extends QueryCountTest {
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void listIsVersionPlusOneQuery(int users) throws Exception {
+        for (int i = 0; i < users; i++) {
+            createUser();
+        }
+        perform(get("/users"), status().isOk(), StatementCounts.selects(2));
+    }
+
+    @Test
+    void detailIsVersionPlusOneQuery() throws Exception {
+        User user = createUser();
+        perform(get("/users/{id}", user.getId()), status().isOk(), StatementCounts.selects(2));
+    }
+
+    @Test
+    void registerInsertsOnce() throws Exception {
+        String body = """
+                {"firstName": "Ada", "lastName": "Lovelace", "username": "ada-register", \
+                "email": "ada-register@example.com", "password": "analytical-engine"}
+                """;
+        perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body), status().isCreated(),
+                new StatementCounts(0, 1, 0, 0));
+    }
+
+    @Test
+    void patchLoadsOnceAndUpdatesOnce() throws Exception {
+        User user = createUser();
+        perform(patch("/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\": \"Renamed\"}"), status().isOk(),
+                new StatementCounts(1, 0, 1, 0));
+    }
+
+    @Test
+    void conditionalPatchIsOneStatement() throws Exception {
+        User user = createUser();
+        perform(patch("/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, bearer(user))
+                .header(HttpHeaders.IF_MATCH, "\"u" + user.getId() + "-v0\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\": \"Renamed\"}"),
+                status().isNoContent(), new StatementCounts(0, 0, 1, 0));
+    }
+
+    // Username and recipe ids for cache eviction, then one DELETE; the database cascade removes the recipes
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deleteIsOneStatementHoweverManyRecipes(int recipes) throws Exception {
+        User user = createRecipes(recipes, false).get(0).getUser();
+        perform(delete("/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, bearer(user)),
+                status().isNoContent(), new StatementCounts(2, 0, 0, 1));
+        assertThat(recipeRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package com.cacutler.recipearchive.loadtest;
+
+import java.util.Arrays;
+
+// Keeps every sample rather than a histogram so p999 is exact; one recorder per worker, merged after the run
+final class LatencyRecorder {
+    private long[] nanos = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long elapsedNanos, boolean error) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = elapsedNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, count + other.count);
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    // Nearest-rank percentile in milliseconds; sorts in place, so call only after recording has stopped
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(nanos, 0, count);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return nanos[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
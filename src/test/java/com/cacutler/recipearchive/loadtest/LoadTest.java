@@ -0,0 +1,219 @@
+package com.cacutler.recipearchive.loadtest;
+
+import com.cacutler.recipearchive.TheRecipeArchiveApplication;
+import com.cacutler.recipearchive.loadtest.Workload.Operation;
+import com.cacutler.recipearchive.security.JwtUtil;
+import com.cacutler.recipearchive.service.IngredientMatchService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tools.jackson.databind.json.JsonMapper;
+
+// End-to-end load test: embedded PostgreSQL, the full application on a random port, and closed-loop clients
+// that each send one request, wait for the answer and send the next. Run through the loadtest Maven profile:
+//   ./mvnw -Ploadtest verify -DskipTests -Dloadtest.concurrency=16,64,256
+// Options are key=value arguments; anything starting with -- is passed on to Spring (e.g. --app.security...).
+// Client and server share this JVM, so allocation rate includes the client's share; it is constant per request
+// type, which keeps runs with the same mix comparable.
+public final class LoadTest {
+    private static final String PASSWORD = "load-test-password";
+
+    record OperationResult(String operation, int requests, int errors, double throughput, double p50Millis,
+            double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    record LevelResult(String threads, int concurrency, double seconds, double throughput, double allocationMbPerSecond,
+            double allocationKbPerRequest, List<OperationResult> operations) {
+    }
+
+    record Report(Map<String, Object> options, List<LevelResult> levels) {
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int recipes = Integer.parseInt(options.getOrDefault("recipes", "20000"));
+        int[] levels = Arrays.stream(options.getOrDefault("concurrency", "16,64,256").split(","))
+                .map(String::strip).mapToInt(Integer::parseInt).toArray();
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Map<Operation, Integer> mix = Workload.parseMix(options.get("mix"));
+        File result = new File(options.getOrDefault("result", "target/loadtest-result.json"));
+        // threads=platform,virtual runs everything once per request-thread mode, each against a fresh database and
+        // application, so the two can be compared at the same pool size; unset keeps VIRTUAL_THREADS as it is
+        String threadModes = options.getOrDefault("threads", "").strip();
+        List<String> modes = threadModes.isEmpty() ? List.of("")
+                : Arrays.stream(threadModes.split(",")).map(String::strip).toList();
+
+        List<LevelResult> results = new ArrayList<>();
+        Map<String, Object> reported = new LinkedHashMap<>();
+        reported.put("users", users);
+        reported.put("recipes", recipes);
+        reported.put("warmupSeconds", warmup.toSeconds());
+        reported.put("durationSeconds", duration.toSeconds());
+        reported.put("mix", mix);
+        for (String mode : modes) {
+            List<String> modeArgs = new ArrayList<>(springArgs);
+            if (!mode.isEmpty()) {
+                if (!mode.equals("platform") && !mode.equals("virtual")) {
+                    throw new IllegalArgumentException("threads must list platform and/or virtual, not " + mode);
+                }
+                modeArgs.add("--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+            }
+            try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+                modeArgs.add(0, "--spring.profiles.active=loadtest");
+                modeArgs.add(1, "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+                modeArgs.add(2, "--spring.datasource.username=postgres");
+                modeArgs.add(3, "--server.port=0");
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                        TheRecipeArchiveApplication.class).run(modeArgs.toArray(String[]::new))) {
+                    String threads = context.getEnvironment().getProperty("spring.threads.virtual.enabled",
+                            Boolean.class, false) ? "virtual" : "platform";
+                    reported.put("poolSize",
+                            context.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size"));
+                    Workload workload = seed(context, users, recipes, mix);
+                    for (int concurrency : levels) {
+                        run(workload, threads, concurrency, warmup);
+                        LevelResult level = run(workload, threads, concurrency, duration);
+                        print(level);
+                        results.add(level);
+                    }
+                }
+            }
+        }
+        if (modes.size() > 1) {
+            printComparison(results);
+        }
+        result.getAbsoluteFile().getParentFile().mkdirs();
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(result,
+                new Report(reported, results));
+        System.out.println("Report written to " + result.getAbsolutePath());
+    }
+
+    private static Workload seed(ConfigurableApplicationContext context, int users, int recipes,
+            Map<Operation, Integer> mix) {
+        long started = System.nanoTime();
+        LoadTestData data = new LoadTestData(context.getBean(JdbcTemplate.class), 42);
+        List<Long> userIds = data.seedUsers(users, context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        List<Long> recipeIds = data.seedRecipes(recipes, userIds);
+        context.getBean(IngredientMatchService.class).rebuild();// Built at startup, before the seed existed
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            tokens.add(jwtUtil.generateToken(new org.springframework.security.core.userdetails.User(
+                    LoadTestData.username(i), "", List.of())));
+        }
+        System.out.printf("Seeded %d users and %d recipes in %d ms%n", users, recipes,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        return new Workload(baseUrl, PASSWORD, userIds, tokens, recipeIds, mix);
+    }
+
+    // Virtual threads keep a few hundred blocked clients cheap, so the client is never the bottleneck
+    private static LevelResult run(Workload workload, String mode, int concurrency, Duration duration)
+            throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        List<Future<Map<Operation, LatencyRecorder>>> clients = new ArrayList<>(concurrency);
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long seed = i;
+                clients.add(executor.submit(() -> client(workload, new Random(seed), deadline)));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        LatencyRecorder total = new LatencyRecorder();
+        for (Future<Map<Operation, LatencyRecorder>> client : clients) {
+            client.get().forEach((operation, recorder) -> {
+                merged.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder);
+                total.merge(recorder);
+            });
+        }
+        List<OperationResult> operations = new ArrayList<>();
+        merged.forEach((operation, recorder) -> operations.add(summarize(operation.label(), recorder, seconds)));
+        operations.add(summarize("all", total, seconds));
+        return new LevelResult(mode, concurrency, seconds, total.count() / seconds, allocated / seconds / 1_048_576,
+                total.count() == 0 ? 0 : allocated / 1024.0 / total.count(), operations);
+    }
+
+    private static Map<Operation, LatencyRecorder> client(Workload workload, Random random, long deadline)
+            throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        while (System.nanoTime() < deadline) {
+            Operation operation = workload.pick(random);
+            long started = System.nanoTime();
+            boolean error;
+            try {
+                int status = workload.execute(operation, random);
+                error = status < 200 || status >= 300;
+            } catch (IOException e) {
+                error = true;
+            }
+            recorders.computeIfAbsent(operation, key -> new LatencyRecorder())
+                    .record(System.nanoTime() - started, error);
+        }
+        return recorders;
+    }
+
+    private static OperationResult summarize(String operation, LatencyRecorder recorder, double seconds) {
+        return new OperationResult(operation, recorder.count(), recorder.errors(), recorder.count() / seconds,
+                recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.percentileMillis(99.9),
+                recorder.percentileMillis(100));
+    }
+
+    private static void print(LevelResult level) {
+        System.out.printf("%nConcurrency %d, %s threads: %.0f req/s, %.1f MB/s allocated (%.1f KB/request)%n",
+                level.concurrency(), level.threads(), level.throughput(), level.allocationMbPerSecond(),
+                level.allocationKbPerRequest());
+        System.out.printf("%-14s %9s %7s %9s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (OperationResult operation : level.operations()) {
+            System.out.printf("%-14s %9d %7d %9.0f %9.2f %9.2f %9.2f %9.2f%n", operation.operation(),
+                    operation.requests(), operation.errors(), operation.throughput(), operation.p50Millis(),
+                    operation.p99Millis(), operation.p999Millis(), operation.maxMillis());
+        }
+    }
+
+    // Throughput and tail latency over all operations, side by side for each thread mode
+    private static void printComparison(List<LevelResult> levels) {
+        System.out.printf("%n%-9s %12s %9s %9s %9s%n", "threads", "concurrency", "req/s", "p99 ms", "errors");
+        for (LevelResult level : levels) {
+            OperationResult all = level.operations().get(level.operations().size() - 1);
+            System.out.printf("%-9s %12d %9.0f %9.2f %9d%n", level.threads(), level.concurrency(),
+                    level.throughput(), all.p99Millis(), all.errors());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.cacutler.recipearchive.loadtest;
+
+import com.cacutler.recipearchive.entity.Allergen;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Seeds users and recipes straight through JDBC, bypassing the API so seeding time stays out of the results.
+// Text sizes follow what real recipes look like: a short title, a paragraph of description, 8-25 ingredient lines
+// and 4-14 instruction steps (roughly 0.2-0.7 KB of ingredients and 1-3 KB of instructions).
+public final class LoadTestData {
+    static final String[] SEARCH_TERMS = {"chicken", "pasta", "chocolate", "garlic", "lemon", "rice", "soup", "bread"};
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String[] INGREDIENTS = {"all-purpose flour", "sugar", "brown sugar", "baking powder",
+            "salt", "unsalted butter", "eggs", "milk", "buttermilk", "olive oil", "garlic cloves, minced",
+            "yellow onion, diced", "chicken thighs", "chicken stock", "dried pasta", "parmesan, grated", "lemon juice",
+            "lemon zest", "basmati rice", "canned tomatoes", "tomato paste", "dark chocolate, chopped", "cocoa powder",
+            "heavy cream", "fresh thyme", "ground cumin", "smoked paprika", "soy sauce", "sesame oil", "peanuts",
+            "almonds, toasted", "carrots, sliced", "celery stalks", "potatoes, cubed", "fresh parsley", "black pepper",
+            "bread flour", "instant yeast", "honey", "vanilla extract", "spinach", "mushrooms, sliced", "tofu"};
+    private static final String[] UNITS = {"cup", "cups", "tbsp", "tsp", "g", "ml", "oz", "lb", "pinch of", ""};
+    private static final String[] STEPS = {
+            "Preheat the oven and line a baking tray with parchment so nothing sticks later on.",
+            "Whisk the dry ingredients together in a large bowl until evenly combined and free of lumps.",
+            "Heat the oil in a heavy pan over medium heat, add the onion and cook, stirring often, until soft.",
+            "Add the garlic and spices and cook for another minute, until fragrant but not browned.",
+            "Pour in the stock, scrape up anything stuck to the bottom and bring everything to a gentle simmer.",
+            "Fold the wet ingredients into the dry ones until just combined; a few streaks of flour are fine.",
+            "Cover and leave to rest somewhere warm until doubled in size, about an hour depending on the room.",
+            "Cook the pasta in well-salted water until just shy of al dente, reserving a cup of the cooking water.",
+            "Taste and adjust the seasoning with salt, pepper and a squeeze of lemon juice before serving.",
+            "Transfer to the oven and bake until golden and a skewer inserted in the middle comes out clean.",
+            "Let cool for ten minutes before slicing, otherwise the centre will still be too soft to hold together.",
+            "Scatter over the herbs, drizzle with a little more oil and serve straight away while it is hot."};
+    private static final String[] DISHES = {"chicken", "pasta", "chocolate cake", "garlic bread", "lemon tart",
+            "fried rice", "tomato soup", "sourdough bread", "curry", "stew", "salad", "pancakes"};
+    private static final String[] STYLES = {"Weeknight", "Grandma's", "Smoky", "Crispy", "Slow-cooked", "Easy",
+            "Spicy", "Classic", "One-pot", "Sunday"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    LoadTestData(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    // Every user shares one password hash; BCrypt cost is paid on login, not on seeding.
+    // Ids come back in insert order, so userIds.get(i) belongs to username(i).
+    List<Long> seedUsers(int count, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Load", "Tester " + i, username(i), username(i) + "@example.com", passwordHash});
+        }
+        for (List<Object[]> batch : partition(rows)) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (first_name, last_name, username, email, password) VALUES (?, ?, ?, ?, ?)",
+                    batch);
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+    }
+
+    List<Long> seedRecipes(int count, List<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String allergies = allergies(random);
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+            rows.add(new Object[]{userIds.get(random.nextInt(userIds.size())), title(random), description(random),
+                    ingredients(random), instructions(random), allergies, Allergen.maskOf(allergies),
+                    5 + random.nextInt(40), 10 + random.nextInt(120), 1 + random.nextInt(8), createdAt, createdAt});
+        }
+        for (List<Object[]> batch : partition(rows)) {
+            jdbcTemplate.batchUpdate("INSERT INTO recipes (user_id, title, description, ingredients, instructions, "
+                    + "allergies, allergen_mask, prep_time, cooking_time, servings, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM recipes ORDER BY id", Long.class);
+    }
+
+    static String username(int index) {
+        return "load" + index;
+    }
+
+    public static String title(Random random) {
+        return STYLES[random.nextInt(STYLES.length)] + " " + DISHES[random.nextInt(DISHES.length)];
+    }
+
+    public static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        int sentences = 1 + random.nextInt(4);
+        for (int i = 0; i < sentences; i++) {
+            description.append(STEPS[random.nextInt(STEPS.length)]).append(' ');
+        }
+        return description.toString().strip();
+    }
+
+    public static String ingredients(Random random) {
+        StringBuilder ingredients = new StringBuilder();
+        int lines = 8 + random.nextInt(18);
+        for (int i = 0; i < lines; i++) {
+            ingredients.append(1 + random.nextInt(4)).append(' ').append(UNITS[random.nextInt(UNITS.length)])
+                    .append(' ').append(INGREDIENTS[random.nextInt(INGREDIENTS.length)]).append('\n');
+        }
+        return ingredients.toString().strip();
+    }
+
+    public static String instructions(Random random) {
+        StringBuilder instructions = new StringBuilder();
+        int steps = 4 + random.nextInt(11);
+        for (int i = 1; i <= steps; i++) {
+            instructions.append(i).append(". ").append(STEPS[random.nextInt(STEPS.length)]).append(' ')
+                    .append(STEPS[random.nextInt(STEPS.length)]).append("\n\n");
+        }
+        return instructions.toString().strip();
+    }
+
+    public static String allergies(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> "";
+            case 1 -> "milk, egg";
+            case 2 -> "wheat, gluten";
+            default -> "peanuts, sesame, soy";
+        };
+    }
+
+    private static List<List<Object[]>> partition(List<Object[]> rows) {
+        List<List<Object[]>> batches = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            batches.add(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,137 @@
+package com.cacutler.recipearchive.loadtest;
+
+import com.cacutler.recipearchive.dto.AuthRequest;
+import com.cacutler.recipearchive.dto.RecipeCreateDTO;
+import com.cacutler.recipearchive.dto.RecipeUpdateDTO;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import tools.jackson.databind.json.JsonMapper;
+
+// The requests a simulated client sends. Every call except login carries a bearer token, so each one passes
+// through JwtAuthenticationFilter the same way a signed-in browser session does.
+final class Workload {
+    enum Operation {
+        LIST(30), DETAIL(30), SEARCH(10), USER_RECIPES(10), CREATE(5), UPDATE(5), LOGIN(10);
+
+        private final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final String baseUrl;
+    private final String password;
+    private final List<Long> userIds;
+    private final List<String> tokens;
+    private final List<Long> recipeIds;
+    private final Operation[] picks;
+
+    Workload(String baseUrl, String password, List<Long> userIds, List<String> tokens, List<Long> recipeIds,
+            Map<Operation, Integer> weights) {
+        this.baseUrl = baseUrl;
+        this.password = password;
+        this.userIds = userIds;
+        this.tokens = tokens;
+        this.recipeIds = recipeIds;
+        this.picks = weights.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+        if (picks.length == 0) {
+            throw new IllegalArgumentException("The workload mix has no operation with a positive weight");
+        }
+    }
+
+    // "list=30,detail=30,login=10": operations left out get weight 0; an empty spec uses the defaults
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        if (spec == null || spec.isBlank()) {
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, operation.defaultWeight);
+            }
+            return weights;
+        }
+        for (String part : spec.split(",")) {
+            String[] pair = part.strip().split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in mix, got: " + part);
+            }
+            Operation operation = Operation.valueOf(pair[0].strip().toUpperCase(Locale.ROOT).replace('-', '_'));
+            weights.put(operation, Integer.parseInt(pair[1].strip()));
+        }
+        return weights;
+    }
+
+    Operation pick(Random random) {
+        return picks[random.nextInt(picks.length)];
+    }
+
+    // Returns the HTTP status; transport failures propagate and are counted as errors by the caller
+    int execute(Operation operation, Random random) throws IOException, InterruptedException {
+        int user = random.nextInt(userIds.size());
+        HttpRequest.Builder request = switch (operation) {
+            case LIST -> get("/recipes?fields=summary");
+            case DETAIL -> get("/recipes/" + randomRecipe(random));
+            case SEARCH -> get("/recipes/search?q=" + LoadTestData.SEARCH_TERMS[random.nextInt(
+                    LoadTestData.SEARCH_TERMS.length)]);
+            case USER_RECIPES -> get("/recipes/user/" + userIds.get(user));
+            case CREATE -> json("/recipes", "POST", newRecipe(userIds.get(user), random));
+            case UPDATE -> json("/recipes/" + randomRecipe(random), "PUT", changedRecipe(random));
+            case LOGIN -> json("/auth/login", "POST", new AuthRequest(LoadTestData.username(user), password));
+        };
+        if (operation != Operation.LOGIN) {
+            request.header("Authorization", "Bearer " + tokens.get(user));
+        }
+        // The body is drained so the connection can be reused, as a browser would
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long randomRecipe(Random random) {
+        return recipeIds.get(random.nextInt(recipeIds.size()));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder json(String path, String method, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)));
+    }
+
+    private static RecipeCreateDTO newRecipe(Long userId, Random random) {
+        RecipeCreateDTO recipe = new RecipeCreateDTO();
+        recipe.setUserId(userId);
+        recipe.setTitle(LoadTestData.title(random));
+        recipe.setDescription(LoadTestData.description(random));
+        recipe.setIngredients(LoadTestData.ingredients(random));
+        recipe.setInstructions(LoadTestData.instructions(random));
+        recipe.setAllergies(LoadTestData.allergies(random));
+        recipe.setPrepTime(5 + random.nextInt(40));
+        recipe.setCookingTime(10 + random.nextInt(120));
+        recipe.setServings(1 + random.nextInt(8));
+        return recipe;
+    }
+
+    private static RecipeUpdateDTO changedRecipe(Random random) {
+        RecipeUpdateDTO recipe = new RecipeUpdateDTO();
+        recipe.setTitle(LoadTestData.title(random));
+        recipe.setInstructions(LoadTestData.instructions(random));
+        return recipe;
+    }
+}
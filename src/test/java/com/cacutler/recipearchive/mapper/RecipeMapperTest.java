@@ -0,0 +1,61 @@
+package com.cacutler.recipearchive.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class RecipeMapperTest {
+    private final RecipeMapper recipeMapper = new RecipeMapper();
+
+    @Test
+    void mapsEveryDtoField() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("ada");
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setUpdatedAt(LocalDateTime.of(2024, 3, 4, 5, 6, 7));
+        Recipe recipe = new Recipe();
+        recipe.setId(42L);
+        recipe.setUser(user);
+        recipe.setTitle("Pancakes");
+        recipe.setDescription("Fluffy");
+        recipe.setIngredients("2 eggs\n1 cup flour");
+        recipe.setInstructions("Mix and fry");
+        recipe.setAllergies("egg, wheat");
+        recipe.setPrepTime(5);
+        recipe.setCookingTime(10);
+        recipe.setServings(4);
+        recipe.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        recipe.setUpdatedAt(LocalDateTime.of(2024, 2, 3, 4, 5, 6));
+        recipe.setVersion(3L);
+
+        RecipeDTO dto = recipeMapper.toDTO(recipe);
+
+        assertThat(dto.getUserId()).isEqualTo(7L);
+        assertThat(dto.getUsername()).isEqualTo("ada");
+        assertThat(dto.getDisplayName()).isEqualTo("Ada Lovelace");
+        assertThat(dto.getAuthorUpdatedAt()).isEqualTo(user.getUpdatedAt());
+        for (Field field : RecipeDTO.class.getDeclaredFields()) {
+            if (Set.of("userId", "username", "displayName", "authorUpdatedAt").contains(field.getName())) {
+                continue;
+            }
+            field.setAccessible(true);
+            Field source = Recipe.class.getDeclaredField(field.getName());
+            source.setAccessible(true);
+            assertThat(field.get(dto)).as(field.getName()).isNotNull().isEqualTo(source.get(recipe));
+        }
+    }
+
+    @Test
+    void displayNameFallsBackToUsername() {
+        assertThat(RecipeMapper.displayName(null, " ", "ada")).isEqualTo("ada");
+        assertThat(RecipeMapper.displayName("Ada", null, "ada")).isEqualTo("Ada");
+    }
+}
@@ -0,0 +1,36 @@
+package com.cacutler.recipearchive.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cacutler.recipearchive.dto.UserDTO;
+import com.cacutler.recipearchive.entity.User;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class UserMapperTest {
+    private final UserMapper userMapper = new UserMapper();
+
+    @Test
+    void mapsEveryDtoField() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+        user.setUsername("ada");
+        user.setEmail("ada@example.com");
+        user.setPassword("hash");
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        user.setUpdatedAt(LocalDateTime.of(2024, 2, 3, 4, 5, 6));
+        user.setVersion(3L);
+
+        UserDTO dto = userMapper.toDTO(user);
+
+        for (Field field : UserDTO.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            Field source = User.class.getDeclaredField(field.getName());
+            source.setAccessible(true);
+            assertThat(field.get(dto)).as(field.getName()).isNotNull().isEqualTo(source.get(user));
+        }
+    }
+}
@@ -1,5 +1,89 @@
 package com.cacutler.recipearchive.repository;
 
-public class RecipeRepositoryTest {
+import static org.assertj.core.api.Assertions.assertThat;
 
-}
\ No newline at end of file
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.mapper.RecipeMapper;
+import com.cacutler.recipearchive.support.EmbeddedPostgresConfig;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+// Every recipe gets its own author, so any lazy author load would show up as one extra statement per row
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)// Migrations are PostgreSQL-only
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class RecipeRepositoryTest {
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private EntityManager entityManager;
+    private final RecipeMapper recipeMapper = new RecipeMapper();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void hydratesPageWithAuthorsInOneStatement(int size) {
+        List<Long> ids = persistRecipesWithDistinctAuthors(size);
+        Statistics statistics = statistics();
+
+        List<RecipeDTO> recipes = recipeRepository.findAllWithUserByIdIn(ids).stream().map(recipeMapper::toDTO)
+                .toList();
+
+        assertThat(recipes).hasSize(size).allSatisfy(recipe -> assertThat(recipe.getUsername()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void hydratesSummaryPageWithAuthorsInOneStatement(int size) {
+        List<Long> ids = persistRecipesWithDistinctAuthors(size);
+        Statistics statistics = statistics();
+
+        List<RecipeSummaryView> summaries = recipeRepository.findSummariesByIdIn(ids);
+        summaries.forEach(recipeMapper::toSummaryDTO);
+
+        assertThat(summaries).hasSize(size).allSatisfy(summary -> assertThat(summary.getUsername()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private List<Long> persistRecipesWithDistinctAuthors(int size) {
+        List<Long> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setUsername("author" + i);
+            user.setEmail("author" + i + "@example.com");
+            user.setFirstName("Author");
+            user.setLastName(String.valueOf(i));
+            user.setPassword("hash");
+            entityManager.persist(user);
+            Recipe recipe = new Recipe();
+            recipe.setUser(user);
+            recipe.setTitle("Recipe " + i);
+            recipe.setIngredients("1 egg");
+            recipe.setInstructions("Boil");
+            entityManager.persist(recipe);
+            ids.add(recipe.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
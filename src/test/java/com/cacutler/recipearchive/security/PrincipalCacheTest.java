@@ -0,0 +1,43 @@
+package com.cacutler.recipearchive.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class PrincipalCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private Runnable duringLoad = () -> {
+    };
+    private final PrincipalCache principalCache = new PrincipalCache(new CustomUserDetailsService() {
+        @Override
+        public UserDetails loadUserByUsername(String username) {
+            loads.incrementAndGet();
+            duringLoad.run();
+            return new User(username, "hash", List.of());
+        }
+    }, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void loadIsCached() {
+        principalCache.get("ada");
+        principalCache.get("ada");
+        assertThat(loads).hasValue(1);
+    }
+
+    // The account is deleted and evicted after the loader read it but before its put
+    @Test
+    void loadOverlappingAnEvictionIsNotKept() {
+        duringLoad = () -> principalCache.evict("ada");
+        principalCache.get("ada");
+        duringLoad = () -> {
+        };
+        principalCache.get("ada");
+        assertThat(loads).hasValue(2);
+    }
+}
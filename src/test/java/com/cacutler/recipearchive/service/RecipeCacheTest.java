@@ -0,0 +1,48 @@
+package com.cacutler.recipearchive.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cacutler.recipearchive.dto.RecipeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class RecipeCacheTest {
+    private final RecipeCache recipeCache = new RecipeCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
+    @Test
+    void loadIsCached() {
+        recipeCache.get(42L, RecipeCacheTest::recipe);
+        assertThat(recipeCache.peek(42L)).isNotNull();
+    }
+
+    // The writer commits and evicts after the loader has read the old row but before its put
+    @Test
+    void loadOverlappingAnEvictionIsNotKept() {
+        RecipeDTO loaded = recipeCache.get(42L, id -> {
+            RecipeDTO stale = recipe(id);
+            recipeCache.evict(id);
+            return stale;
+        });
+        assertThat(loaded).isNotNull();
+        assertThat(recipeCache.peek(42L)).isNull();
+    }
+
+    @Test
+    void loadOverlappingAnAuthorEvictionIsNotKept() {
+        recipeCache.get(42L, id -> {
+            RecipeDTO stale = recipe(id);
+            recipeCache.evictByAuthor(stale.getUserId());
+            return stale;
+        });
+        assertThat(recipeCache.peek(42L)).isNull();
+    }
+
+    private static RecipeDTO recipe(Long id) {
+        RecipeDTO recipe = new RecipeDTO();
+        recipe.setId(id);
+        recipe.setUserId(7L);
+        recipe.setVersion(0L);
+        return recipe;
+    }
+}
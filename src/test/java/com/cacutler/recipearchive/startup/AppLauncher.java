@@ -0,0 +1,62 @@
+package com.cacutler.recipearchive.startup;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Starts the packaged application as a separate JVM against an embedded PostgreSQL, the way a fresh instance
+// starts in production: no warm JIT, no loaded classes, only the jar, the JVM options and a database.
+final class AppLauncher {
+    private static final String JWT_SECRET = "startup-benchmark-secret-that-is-at-least-256-bits-long";
+    private final EmbeddedPostgres postgres;
+    private final String profiles;
+
+    AppLauncher(EmbeddedPostgres postgres, String profiles) {
+        this.postgres = postgres;
+        this.profiles = profiles;
+    }
+
+    // Every placeholder the prod profile expects from the environment is supplied as an argument instead
+    Process start(Path jar, List<String> jvmOptions, int port, File log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--spring.profiles.active=" + profiles);
+        command.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+        command.add("--spring.datasource.username=postgres");
+        command.add("--spring.datasource.password=");
+        command.add("--jwt.secret=" + JWT_SECRET);
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=0");
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log));
+        // A replica URL or pool size left in the shell would otherwise apply to some runs and not to others
+        builder.environment().keySet().removeIf(name -> name.startsWith("DB_") || name.equals("JWT_SECRET"));
+        return builder.start();
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // key=value program arguments, as the load test takes them
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,46 @@
+package com.cacutler.recipearchive.startup;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Training run for the class-data-sharing archive, invoked by the fast-startup profile. The extracted AOT build is
+// started against a real (embedded) database with spring.context.exit=onRefresh, so Flyway validation, the JPA
+// metamodel, Hibernate schema validation and the security chain all load their classes before the JVM exits
+// and writes every loaded class into the archive.
+public final class CdsTraining {
+    private static final long TIMEOUT_SECONDS = 300;
+
+    private CdsTraining() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = AppLauncher.options(args);
+        Path jar = Path.of(options.get("jar"));
+        Path archive = Path.of(options.get("archive"));
+        String profiles = options.getOrDefault("profiles", "prod");
+        File log = archive.resolveSibling("cds-training.log").toFile();
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(log.toPath());
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            Process training = new AppLauncher(postgres, profiles).start(jar,
+                    List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true",
+                            "-Dspring.context.exit=onRefresh"),
+                    AppLauncher.freePort(), log);
+            if (!training.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                training.destroyForcibly();
+                throw new IllegalStateException("Training run did not finish in " + TIMEOUT_SECONDS + "s, see " + log);
+            }
+            if (training.exitValue() != 0 || !Files.exists(archive)) {
+                throw new IllegalStateException("Training run failed (exit " + training.exitValue() + "), see " + log);
+            }
+        }
+        System.out.printf("CDS archive written to %s (%d MB)%n", archive.toAbsolutePath(),
+                Files.size(archive) / 1_048_576);
+    }
+}
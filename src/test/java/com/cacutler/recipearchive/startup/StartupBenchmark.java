@@ -0,0 +1,127 @@
+package com.cacutler.recipearchive.startup;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import tools.jackson.databind.json.JsonMapper;
+
+// Cold-start benchmark: wall time from launching the JVM to the first 200 from GET /recipes, which covers context
+// refresh, Flyway and Hibernate validation, Tomcat start and the first request through the security chain. Each
+// variant is started `runs` times after one discarded run (which also applies the migrations on the first variant
+// and warms the OS page cache). Run after the fast-startup build:
+//   ./mvnw -Pfast-startup verify -DskipTests -Dstartup.benchmark.skip=false [-Dstartup.runs=10]
+public final class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    record Variant(String name, Path jar, List<String> jvmOptions) {
+    }
+
+    record VariantResult(String variant, int runs, double medianMillis, double minMillis, double maxMillis,
+            List<Double> samplesMillis) {
+    }
+
+    record Report(Map<String, Object> options, List<VariantResult> variants) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = AppLauncher.options(args);
+        Path plainJar = Path.of(options.get("plain"));
+        Path optimizedJar = Path.of(options.get("optimized"));
+        Path archive = Path.of(options.get("archive"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        String profiles = options.getOrDefault("profiles", "prod");
+        File result = new File(options.getOrDefault("result", "target/startup-result.json"));
+        // The plain variant is the fat jar exactly as it is deployed today; the AOT classes inside it are ignored
+        // unless spring.aot.enabled is set
+        List<Variant> variants = List.of(
+                new Variant("plain", plainJar, List.of()),
+                new Variant("aot", optimizedJar, List.of("-Dspring.aot.enabled=true")),
+                new Variant("aot+cds", optimizedJar,
+                        List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true")));
+
+        List<VariantResult> results = new ArrayList<>();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            AppLauncher launcher = new AppLauncher(postgres, profiles);
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+            File log = result.getAbsoluteFile().toPath().resolveSibling("startup-benchmark.log").toFile();
+            Files.deleteIfExists(log.toPath());
+            for (Variant variant : variants) {
+                timeToFirstResponse(launcher, client, variant, log);// Discarded
+                double[] samples = new double[runs];
+                for (int i = 0; i < runs; i++) {
+                    samples[i] = timeToFirstResponse(launcher, client, variant, log);
+                }
+                VariantResult summary = summarize(variant.name(), samples);
+                System.out.printf("%-8s median %7.0f ms   min %7.0f ms   max %7.0f ms%n", summary.variant(),
+                        summary.medianMillis(), summary.minMillis(), summary.maxMillis());
+                results.add(summary);
+            }
+        }
+        Map<String, Object> reported = new LinkedHashMap<>();
+        reported.put("runs", runs);
+        reported.put("profiles", profiles);
+        reported.put("java", System.getProperty("java.version"));
+        reported.put("processors", Runtime.getRuntime().availableProcessors());
+        Files.createDirectories(result.getAbsoluteFile().getParentFile().toPath());
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(result,
+                new Report(reported, results));
+        System.out.println("Report written to " + result.getAbsolutePath());
+    }
+
+    private static double timeToFirstResponse(AppLauncher launcher, HttpClient client, Variant variant, File log)
+            throws IOException, InterruptedException {
+        int port = AppLauncher.freePort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/recipes"))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+        long started = System.nanoTime();
+        Process app = launcher.start(variant.jar(), variant.jvmOptions(), port, log);
+        try {
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                if (!app.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + app.exitValue() + ", see "
+                            + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - started) / 1e6;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException(variant.name() + " did not answer within " + TIMEOUT + ", see " + log);
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static VariantResult summarize(String variant, double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double median = sorted.length % 2 == 1 ? sorted[sorted.length / 2]
+                : (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+        return new VariantResult(variant, sorted.length, median, sorted[0], sorted[sorted.length - 1],
+                Arrays.stream(samples).boxed().toList());
+    }
+}
@@ -0,0 +1,46 @@
+package com.cacutler.recipearchive.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+// Replaces the configured datasource with a local embedded PostgreSQL, wrapped so every statement is recorded by
+// StatementCounter. One server is started per JVM and shared by all test contexts; Flyway migrates it on first use.
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresConfig {
+    private static EmbeddedPostgres postgres;
+
+    private static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    @Bean
+    public DataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(server().getJdbcUrl("postgres", "postgres"));
+        config.setUsername("postgres");
+        config.setMaximumPoolSize(5);
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");// Same as application.yaml
+        return ProxyDataSourceBuilder.create(new HikariDataSource(config)).name("counted")
+                .listener(new StatementCounter()).build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.cacutler.recipearchive.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cacutler.recipearchive.entity.Recipe;
+import com.cacutler.recipearchive.entity.User;
+import com.cacutler.recipearchive.repository.RecipeRepository;
+import com.cacutler.recipearchive.repository.UserRepository;
+import com.cacutler.recipearchive.security.JwtUtil;
+import com.cacutler.recipearchive.security.PrincipalCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Base for tests that pin the exact statements each endpoint issues. Data is seeded first, counters are reset,
+// then exactly one request is measured. Usernames are never reused, so no cached principal or recipe from an
+// earlier test can hide a query.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+public abstract class QueryCountTest {
+    protected static final String PASSWORD = "correct horse battery staple";
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected RecipeRepository recipeRepository;
+    @Autowired
+    protected PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private PrincipalCache principalCache;
+    private String passwordHash;
+
+    @BeforeEach
+    void cleanDatabase() {
+        jdbcTemplate.execute("TRUNCATE recipes, users CASCADE");// Sequences keep counting, so ids are never reused
+        if (passwordHash == null) {
+            passwordHash = passwordEncoder.encode(PASSWORD);
+        }
+    }
+
+    protected User createUser() {
+        return createUser("cook" + USER_SEQUENCE.incrementAndGet());
+    }
+
+    protected User createUser(String username) {
+        User user = new User();
+        user.setFirstName("Cook");
+        user.setLastName(username);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword(passwordHash);
+        return userRepository.save(user);
+    }
+
+    // Each recipe gets its own author when distinctAuthors is set, so per-row author loads would show up
+    protected List<Recipe> createRecipes(int count, boolean distinctAuthors) {
+        return transactionTemplate.execute(status -> {
+            User shared = distinctAuthors ? null : createUser();
+            List<Recipe> recipes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Recipe recipe = new Recipe();
+                recipe.setUser(distinctAuthors ? createUser() : shared);
+                recipe.setTitle("Buttermilk pancakes " + i);
+                recipe.setDescription("Sunday breakfast");
+                recipe.setIngredients("2 eggs\n1 cup flour\n1 cup buttermilk");
+                recipe.setInstructions("Mix and fry");
+                recipe.setAllergies("egg, milk, wheat");
+                recipes.add(recipeRepository.save(recipe));
+            }
+            return recipes;
+        });
+    }
+
+    // Warms the principal cache first, like any follow-up request in a real session
+    protected String bearer(User user) {
+        principalCache.get(user.getUsername());
+        return "Bearer " + jwtUtil.generateToken(
+                new org.springframework.security.core.userdetails.User(user.getUsername(), "", List.of()));
+    }
+
+    protected ResultActions perform(MockHttpServletRequestBuilder request, ResultMatcher status,
+            StatementCounts expected) throws Exception {
+        StatementCounter.reset();
+        ResultActions result = mockMvc.perform(request).andExpect(status);
+        List<String> statements = StatementCounter.statements();
+        assertThat(StatementCounts.of(statements)).as("Statements issued:%n%s", String.join("\n", statements))
+                .isEqualTo(expected);
+        return result;
+    }
+}
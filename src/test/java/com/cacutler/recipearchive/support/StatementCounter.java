@@ -0,0 +1,37 @@
+package com.cacutler.recipearchive.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// Records the SQL of every round trip made on the current thread. A JDBC batch counts once, since that is one
+// round trip. Sequence reads are skipped: the pooled optimizer makes one per 50 inserts, so when they happen
+// depends on earlier tests.
+public class StatementCounter implements QueryExecutionListener {
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            if (!sql.toLowerCase(Locale.ROOT).contains("nextval(")) {
+                STATEMENTS.get().add(sql);
+            }
+        }
+    }
+}
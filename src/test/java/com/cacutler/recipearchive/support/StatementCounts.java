@@ -0,0 +1,30 @@
+package com.cacutler.recipearchive.support;
+
+import java.util.List;
+import java.util.Locale;
+
+public record StatementCounts(int selects, int inserts, int updates, int deletes) {
+    public static StatementCounts of(List<String> statements) {
+        int selects = 0;
+        int inserts = 0;
+        int updates = 0;
+        int deletes = 0;
+        for (String sql : statements) {
+            String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (verb.startsWith("select") || verb.startsWith("with")) {
+                selects++;
+            } else if (verb.startsWith("insert")) {
+                inserts++;
+            } else if (verb.startsWith("update")) {
+                updates++;
+            } else if (verb.startsWith("delete")) {
+                deletes++;
+            }
+        }
+        return new StatementCounts(selects, inserts, updates, deletes);
+    }
+
+    public static StatementCounts selects(int selects) {
+        return new StatementCounts(selects, 0, 0, 0);
+    }
+}